@@ -0,0 +1,76 @@
+package org.flatscrew.latte.benchmarks;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.CommandExecutor;
+import org.flatscrew.latte.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hands commands to a {@link CommandExecutor} and waits until all of their messages have come
+ * back, measuring what it costs to get a command off the event loop and its result back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandDispatchBenchmark {
+
+    private static final int COMMANDS = 1_000;
+    private static final Message RESULT = new Message() {
+    };
+    private static final Command COMMAND = () -> RESULT;
+
+    @Param({"cached", "virtual", "bounded"})
+    public String executor;
+
+    private CommandExecutor commandExecutor;
+    private final LongAdder results = new LongAdder();
+    private final Consumer<Message> collect = message -> results.increment();
+
+    @Setup
+    public void setUp() {
+        commandExecutor = switch (executor) {
+            case "cached" -> CommandExecutor.cachedThreadPool();
+            case "virtual" -> CommandExecutor.virtualThreads();
+            case "bounded" -> CommandExecutor.bounded(4, COMMANDS, CommandExecutor.QueueFullPolicy.BLOCK);
+            default -> throw new IllegalArgumentException(executor);
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        commandExecutor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public long dispatch() {
+        long target = results.sum() + COMMANDS;
+        for (int i = 0; i < COMMANDS; i++) {
+            commandExecutor.executeIfPresent(COMMAND, collect);
+        }
+        while (results.sum() < target) {
+            LockSupport.parkNanos(1_000);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,56 @@
+package org.flatscrew.latte.benchmarks;
+
+import org.jline.terminal.Size;
+import org.jline.terminal.Terminal;
+import org.jline.terminal.impl.DumbTerminal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A terminal that discards its output and never delivers input. Unlike terminals made by
+ * {@code TerminalBuilder} it doesn't open a pty or start pump threads, so benchmarks measure
+ * latte rather than the operating system.
+ */
+public final class InMemoryTerminal {
+
+    private InMemoryTerminal() {
+    }
+
+    public static Terminal create(int width, int height) {
+        return create(width, height, OutputStream.nullOutputStream());
+    }
+
+    public static Terminal create(int width, int height, OutputStream output) {
+        try {
+            DumbTerminal terminal = new DumbTerminal(
+                    "benchmark", "xterm-256color", new IdleInputStream(), output, StandardCharsets.UTF_8);
+            terminal.setSize(new Size(width, height));
+            return terminal;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Input that never delivers a byte, so the program's keyboard thread simply parks.
+     */
+    private static class IdleInputStream extends InputStream {
+
+        private final CountDownLatch never = new CountDownLatch(1);
+
+        @Override
+        public int read() throws IOException {
+            try {
+                never.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return -1;
+        }
+    }
+}
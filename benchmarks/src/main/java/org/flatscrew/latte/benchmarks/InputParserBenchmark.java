@@ -0,0 +1,52 @@
+package org.flatscrew.latte.benchmarks;
+
+import org.flatscrew.latte.InputParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes a chunk of terminal input into messages, as the keyboard thread does for every read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputParserBenchmark {
+
+    @Param({"typing", "navigation", "paste"})
+    public String input;
+
+    private InputParser parser;
+    private char[] chunk;
+    private long messages;
+
+    @Setup
+    public void setUp() {
+        parser = new InputParser(message -> messages++);
+        chunk = switch (input) {
+            case "typing" -> "the quick brown fox jumps over the lazy dog żółć 🙂\r".toCharArray();
+            case "navigation" -> "\033[A\033[B\033[1;5C\033[1;2D\033OH\033[5~\033[6~\033[3~\033[Z\t".toCharArray();
+            case "paste" -> ("\033[200~" + "pasted line of text\n".repeat(200) + "\033[201~").toCharArray();
+            default -> throw new IllegalArgumentException(input);
+        };
+    }
+
+    @Benchmark
+    public long parse() {
+        parser.feed(chunk, 0, chunk.length);
+        return messages;
+    }
+}
@@ -0,0 +1,140 @@
+package org.flatscrew.latte.benchmarks;
+
+import org.flatscrew.latte.LaneMessageQueue;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.MessageLane;
+import org.flatscrew.latte.MessageQueue;
+import org.flatscrew.latte.MpscMessageQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends messages from 1, 4 and 16 threads into a queue that a single event-loop thread drains,
+ * comparing a plain {@link LinkedBlockingQueue} with the lane queue and the lock-free queue. All
+ * of them hold the same number of messages, so a full queue makes the senders wait for the
+ * event loop the same way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageQueueBenchmark {
+
+    private static final int CAPACITY = 4096;
+    private static final int MESSAGES_PER_FRAME = 256;
+    private static final Message MESSAGE = new Message() {
+    };
+
+    @Param({"linked", "lanes", "mpsc"})
+    public String queue;
+
+    private MessageQueue messageQueue;
+    private Thread eventLoop;
+
+    @Setup(Level.Trial)
+    public void startEventLoop() {
+        messageQueue = switch (queue) {
+            case "linked" -> new LinkedMessageQueue(CAPACITY);
+            case "lanes" -> new LaneMessageQueue();
+            case "mpsc" -> new MpscMessageQueue();
+            default -> throw new IllegalArgumentException(queue);
+        };
+        eventLoop = new Thread(this::drain, "benchmark-event-loop");
+        eventLoop.setDaemon(true);
+        eventLoop.start();
+    }
+
+    private void drain() {
+        List<Message> batch = new ArrayList<>(MESSAGES_PER_FRAME);
+        try {
+            while (true) {
+                batch.add(messageQueue.take());
+                messageQueue.drainTo(batch, MESSAGES_PER_FRAME - 1);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // done
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopEventLoop() throws InterruptedException {
+        messageQueue.close();
+        eventLoop.interrupt();
+        eventLoop.join();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean oneSender() throws InterruptedException {
+        return messageQueue.offer(MESSAGE, MessageLane.COMMAND);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean fourSenders() throws InterruptedException {
+        return messageQueue.offer(MESSAGE, MessageLane.COMMAND);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean sixteenSenders() throws InterruptedException {
+        return messageQueue.offer(MESSAGE, MessageLane.COMMAND);
+    }
+
+    /**
+     * The queue programs used before lanes, bounded like the others and ignoring lanes.
+     */
+    private static final class LinkedMessageQueue implements MessageQueue {
+
+        private final LinkedBlockingQueue<Message> messages;
+
+        private LinkedMessageQueue(int capacity) {
+            this.messages = new LinkedBlockingQueue<>(capacity);
+        }
+
+        @Override
+        public boolean offer(Message message, MessageLane lane) throws InterruptedException {
+            messages.put(message);
+            return true;
+        }
+
+        @Override
+        public Message take() throws InterruptedException {
+            return messages.take();
+        }
+
+        @Override
+        public int drainTo(List<Message> batch, int maxMessages) {
+            return messages.drainTo(batch, maxMessages);
+        }
+
+        @Override
+        public int depth(MessageLane lane) {
+            return messages.size();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
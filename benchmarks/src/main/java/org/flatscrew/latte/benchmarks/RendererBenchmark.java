@@ -0,0 +1,131 @@
+package org.flatscrew.latte.benchmarks;
+
+import org.flatscrew.latte.Frame;
+import org.flatscrew.latte.StandardRenderer;
+import org.flatscrew.latte.cream.Color;
+import org.flatscrew.latte.cream.Style;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diffs a frame against the previous one and writes the difference, which is what
+ * {@code StandardRenderer.flush} spends its time on. The renderer is synchronous and renders on
+ * the benchmark thread, so the renderer thread and the frame rate stay out of the measurement.
+ * <ul>
+ *     <li>{@code typical}: a styled dashboard where a counter and a spinner change every frame</li>
+ *     <li>{@code scrolling}: a log scrolling by one line, so every line on screen changes</li>
+ *     <li>{@code wide}: every line changes, mixes CJK and emoji with styles and is too long for
+ *     the terminal, so it has to be measured and cut</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RendererBenchmark {
+
+    private static final int WIDTH = 120;
+    private static final int HEIGHT = 40;
+    private static final int FRAMES = 64;
+    private static final String[] SPINNER = {"⣾", "⣽", "⣻", "⢿", "⡿", "⣟", "⣯", "⣷"};
+
+    @Param({"typical", "scrolling", "wide"})
+    public String frames;
+
+    @Param({"lines", "cells"})
+    public String diffing;
+
+    private StandardRenderer renderer;
+    private Frame[] views;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        renderer = new StandardRenderer(InMemoryTerminal.create(WIDTH, HEIGHT)).synchronous();
+        if (diffing.equals("cells")) {
+            renderer.withCellDiffing();
+        }
+        renderer.start();
+        views = new Frame[FRAMES];
+        for (int i = 0; i < FRAMES; i++) {
+            views[i] = switch (frames) {
+                case "typical" -> dashboard(i);
+                case "scrolling" -> log(i);
+                case "wide" -> wide(i);
+                default -> throw new IllegalArgumentException(frames);
+            };
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        renderer.stop();
+    }
+
+    @Benchmark
+    public void renderFrame() {
+        renderer.write(views[next++ & (FRAMES - 1)]);
+    }
+
+    private static Frame dashboard(int frame) {
+        Style title = new Style().foreground(new Color(205));
+        Style label = new Style().foreground(new Color(244));
+        Style value = new Style().foreground(new Color(86));
+        Frame view = new Frame();
+        view.add(title.render(" Build dashboard"));
+        view.add("");
+        view.add(SPINNER[frame % SPINNER.length] + " " + label.render("Processed: ") + value.render(String.valueOf(frame * 137)));
+        view.add("");
+        for (int line = 4; line < HEIGHT - 2; line++) {
+            view.add(label.render("  module-" + line + " ") + value.render("passed") + "  " + (line * 31) + " tests, " + (line % 7) + " skipped");
+        }
+        view.add("");
+        view.add(label.render(" q: quit  r: rerun  ↑/↓: select"));
+        return view;
+    }
+
+    private static Frame log(int frame) {
+        Style time = new Style().foreground(new Color(244));
+        Style level = new Style().foreground(new Color(214));
+        Frame view = new Frame();
+        for (int line = frame; line < frame + HEIGHT; line++) {
+            view.add(time.render(String.format("12:%02d:%02d.%03d ", line / 60 % 60, line % 60, line * 7 % 1000))
+                    + level.render(line % 5 == 0 ? "WARN " : "INFO ")
+                    + "request " + line + " handled in " + (line * 13 % 97) + " ms by worker-" + (line % 8));
+        }
+        return view;
+    }
+
+    private static Frame wide(int frame) {
+        Style[] styles = {
+                new Style().foreground(new Color(196)),
+                new Style().foreground(new Color(46)).background(new Color(236)),
+                new Style().foreground(new Color(33)),
+        };
+        String[] words = {"漢字", "かな", "🙂", "👩‍💻", "🇵🇱", "text", "한국어", "✔️"};
+        Frame view = new Frame();
+        for (int line = 0; line < HEIGHT; line++) {
+            StringBuilder text = new StringBuilder();
+            for (int word = 0; text.length() < WIDTH * 2; word++) {
+                int n = frame + line + word;
+                text.append(styles[n % styles.length].render(words[n % words.length])).append(' ');
+            }
+            view.add(text.toString());
+        }
+        return view;
+    }
+}
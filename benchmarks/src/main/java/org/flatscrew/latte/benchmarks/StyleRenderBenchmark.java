@@ -0,0 +1,69 @@
+package org.flatscrew.latte.benchmarks;
+
+import org.flatscrew.latte.cream.Color;
+import org.flatscrew.latte.cream.Style;
+import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStyle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders a styled cell the way views do it every frame. {@code jline} is what Style.render
+ * used to do: build an AttributedString and convert it back to ANSI on every call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StyleRenderBenchmark {
+
+    @Param({"⣾ ", "a typical table cell value"})
+    public String text;
+
+    private AttributedStyle attributedStyle;
+    private Style style;
+    private Style cachedStyle;
+    private StringBuilder line;
+
+    @Setup
+    public void setUp() {
+        attributedStyle = AttributedStyle.DEFAULT.foreground(204).background(235);
+        style = new Style().foreground(new Color(204)).background(new Color(235));
+        cachedStyle = style.cached(64);
+        line = new StringBuilder(256);
+    }
+
+    @Benchmark
+    public String jline() {
+        return new AttributedString(text, attributedStyle).toAnsi();
+    }
+
+    @Benchmark
+    public String render() {
+        return style.render(text);
+    }
+
+    @Benchmark
+    public String renderCached() {
+        return cachedStyle.render(text);
+    }
+
+    @Benchmark
+    public StringBuilder renderInto() {
+        line.setLength(0);
+        return style.render(line, text);
+    }
+}
@@ -0,0 +1,122 @@
+package org.flatscrew.latte.benchmarks;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Frame;
+import org.flatscrew.latte.FrameModel;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.Model;
+import org.flatscrew.latte.Program;
+import org.flatscrew.latte.UpdateResult;
+import org.flatscrew.latte.message.QuitMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Floods a running program with messages and measures how many of them get through update().
+ * Compares rendering after every message with draining the queue in batches, and views joined
+ * into a string with views added to a {@link Frame} line by line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdateThroughputBenchmark {
+
+    private static final int MESSAGES = 10_000;
+
+    @Param({"1", "64", "1024"})
+    public int messagesPerFrame;
+
+    @Param({"string", "frame"})
+    public String view;
+
+    private CountingModel model;
+    private Program program;
+    private Thread programThread;
+
+    @Setup(Level.Trial)
+    public void startProgram() {
+        model = view.equals("frame") ? new CountingFrameModel() : new CountingModel();
+        program = new Program(model, InMemoryTerminal.create(120, 40))
+                .withMessageBatching(messagesPerFrame);
+        programThread = new Thread(program::run, "benchmark-program");
+        programThread.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopProgram() throws InterruptedException {
+        program.send(new QuitMessage());
+        programThread.join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long sendAndUpdate() {
+        long target = model.updates + MESSAGES;
+        for (int i = 0; i < MESSAGES; i++) {
+            program.send(Increment.INSTANCE);
+        }
+        while (model.updates < target) {
+            LockSupport.parkNanos(1_000);
+        }
+        return model.updates;
+    }
+
+    enum Increment implements Message {
+        INSTANCE
+    }
+
+    static class CountingModel implements Model {
+
+        volatile long updates;
+
+        @Override
+        public Command init() {
+            return null;
+        }
+
+        @Override
+        public UpdateResult<? extends Model> update(Message msg) {
+            if (msg == Increment.INSTANCE) {
+                updates++;
+            }
+            return UpdateResult.from(this);
+        }
+
+        @Override
+        public String view() {
+            StringBuilder view = new StringBuilder();
+            for (int line = 0; line < 40; line++) {
+                view.append("line ").append(line).append(": ").append(updates).append(" updates so far\n");
+            }
+            return view.toString();
+        }
+    }
+
+    static class CountingFrameModel extends CountingModel implements FrameModel {
+
+        @Override
+        public void view(Frame frame) {
+            for (int line = 0; line < 40; line++) {
+                frame.add("line " + line + ": " + updates + " updates so far");
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.flatscrew.latte;
+
+import org.flatscrew.latte.cream.TextWidth;
+
+import java.util.Arrays;
+
+/**
+ * A frame parsed into a grid of cells. Code points and interned style ids are kept in flat
+ * int arrays indexed by {@code row * columns + column}, so a buffer can be refilled frame
+ * after frame without allocating.
+ */
+final class CellBuffer {
+
+    /** Marks the right half of a double-width character. */
+    static final int WIDE_CONTINUATION = -1;
+
+    private static final int TAB_WIDTH = 8;
+
+    private final StringBuilder sgr = new StringBuilder();
+    private int columns;
+    private int[] codePoints = new int[0];
+    private int[] styles = new int[0];
+    private int[] rowLengths = new int[0];
+    private int rows;
+
+    CellBuffer(int columns) {
+        this.columns = columns;
+    }
+
+    int columns() {
+        return columns;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    int rowLength(int row) {
+        return rowLengths[row];
+    }
+
+    int codePoint(int row, int column) {
+        return codePoints[row * columns + column];
+    }
+
+    int style(int row, int column) {
+        return styles[row * columns + column];
+    }
+
+    void resize(int columns) {
+        this.columns = columns;
+        this.codePoints = new int[0];
+        this.styles = new int[0];
+        this.rowLengths = new int[0];
+        this.rows = 0;
+    }
+
+    void clear() {
+        rows = 0;
+    }
+
+    /**
+     * Fills the grid with the lines of the given frame. Lines wider than the grid are truncated and,
+     * if {@code maxRows} is positive, only the bottom-most {@code maxRows} lines are kept.
+     */
+    void parse(Frame frame, int maxRows, StyleTable styleTable) {
+        int firstLine = maxRows > 0 ? Math.max(frame.lineCount() - maxRows, 0) : 0;
+        int lineCount = Math.max(frame.lineCount() - firstLine, 1);
+        ensureRows(lineCount);
+
+        int style = StyleTable.DEFAULT_STYLE;
+        sgr.setLength(0);
+        for (int row = 0; row < lineCount; row++) {
+            int line = firstLine + row;
+            if (line < frame.lineCount()) {
+                style = parseLine(frame.text(line), frame.start(line), frame.end(line), row, style, styleTable);
+            } else {
+                rowLengths[row] = 0;
+            }
+        }
+        rows = lineCount;
+    }
+
+    /**
+     * Parses a single line into the given row. Styles carry over from one line to the next,
+     * so the style the line ends with is returned.
+     */
+    private int parseLine(CharSequence text, int index, int end, int row, int style, StyleTable styleTable) {
+        int rowOffset = row * columns;
+        int column = 0;
+        while (index < end) {
+            char c = text.charAt(index);
+            if (c == '\033') {
+                index = parseEscape(text, index, end);
+                style = styleTable.intern(sgr);
+                continue;
+            }
+            if (c == '\t') {
+                int stop = Math.min(columns, (column / TAB_WIDTH + 1) * TAB_WIDTH);
+                while (column < stop) {
+                    codePoints[rowOffset + column] = ' ';
+                    styles[rowOffset + column++] = style;
+                }
+                index++;
+                continue;
+            }
+
+            int codePoint = Character.codePointAt(text, index);
+            index += Character.charCount(codePoint);
+
+            int width = TextWidth.codePointWidth(codePoint);
+            if (width <= 0 || column + width > columns) {
+                continue;
+            }
+            codePoints[rowOffset + column] = codePoint;
+            styles[rowOffset + column++] = style;
+            if (width == 2) {
+                codePoints[rowOffset + column] = WIDE_CONTINUATION;
+                styles[rowOffset + column++] = style;
+            }
+        }
+        rowLengths[row] = column;
+        return style;
+    }
+
+    /**
+     * Skips over an escape sequence starting at {@code index}. SGR sequences are accumulated
+     * into the current style, anything else is dropped since it would break cell positions.
+     */
+    private int parseEscape(CharSequence view, int index, int end) {
+        if (index + 1 >= end || view.charAt(index + 1) != '[') {
+            // OSC hyperlinks and titles run up to BEL or ST, not just two chars
+            return TextWidth.skipEscapeSequence(view, index, end);
+        }
+
+        int paramsStart = index + 2;
+        int cursor = paramsStart;
+        while (cursor < end && (view.charAt(cursor) < 0x40 || view.charAt(cursor) > 0x7E)) {
+            cursor++;
+        }
+        if (cursor >= end) {
+            return end;
+        }
+
+        if (view.charAt(cursor) == 'm') {
+            boolean reset = cursor == paramsStart
+                    || (cursor == paramsStart + 1 && view.charAt(paramsStart) == '0');
+            if (reset) {
+                sgr.setLength(0);
+            } else {
+                sgr.append(view, index, cursor + 1);
+            }
+        }
+        return cursor + 1;
+    }
+
+    boolean rowEquals(int row, CellBuffer other) {
+        if (row >= other.rows || rowLengths[row] != other.rowLengths[row]) {
+            return false;
+        }
+        int from = row * columns;
+        int to = from + rowLengths[row];
+        return Arrays.equals(codePoints, from, to, other.codePoints, from, to)
+                && Arrays.equals(styles, from, to, other.styles, from, to);
+    }
+
+    boolean cellEquals(int row, int column, CellBuffer other) {
+        int index = row * columns + column;
+        return codePoints[index] == other.codePoints[index] && styles[index] == other.styles[index];
+    }
+
+    private void ensureRows(int count) {
+        if (rowLengths.length >= count) {
+            return;
+        }
+        int capacity = Math.max(count, rowLengths.length * 2);
+        rowLengths = Arrays.copyOf(rowLengths, capacity);
+        codePoints = Arrays.copyOf(codePoints, capacity * columns);
+        styles = Arrays.copyOf(styles, capacity * columns);
+    }
+}
@@ -0,0 +1,226 @@
+package org.flatscrew.latte;
+
+/**
+ * Renders frames by diffing cell grids. Each frame is parsed into the back buffer and
+ * compared with what is currently on screen; only runs of changed cells are written,
+ * with relative cursor movements in between. The two buffers are swapped afterwards,
+ * so once they have grown to the frame size rendering allocates nothing.
+ */
+final class CellDiff {
+
+    // rewriting a few unchanged cells is cheaper than a cursor movement sequence
+    private static final int MAX_GAP = 4;
+    private static final int MAX_STYLES = 4096;
+    // used when the terminal doesn't report its width, lines are then practically never truncated
+    private static final int UNKNOWN_WIDTH_COLUMNS = 1024;
+
+    private final StyleTable styleTable = new StyleTable();
+    private CellBuffer front;
+    private CellBuffer back;
+    private int height;
+    private boolean invalidated = true;
+
+    // rows painted by the last render, still on screen after a resize has emptied the buffers
+    private int renderedRows;
+    private int cursorRow;
+    private int cursorColumn;
+    private int screenRows;
+    private int currentStyle;
+
+    CellDiff(int width, int height) {
+        this.front = new CellBuffer(columns(width));
+        this.back = new CellBuffer(columns(width));
+        this.height = height;
+    }
+
+    void resize(int width, int height) {
+        this.height = height;
+        if (columns(width) != front.columns()) {
+            // content is repainted anyway, where the cursor is comes from renderedRows
+            front.resize(columns(width));
+            back.resize(columns(width));
+        }
+        invalidate();
+    }
+
+    private static int columns(int width) {
+        return width > 0 ? width : UNKNOWN_WIDTH_COLUMNS;
+    }
+
+    void invalidate() {
+        invalidated = true;
+    }
+
+    int linesRendered() {
+        return renderedRows;
+    }
+
+    void render(Frame frame, OutputBuffer out) {
+        if (styleTable.size() > MAX_STYLES) {
+            styleTable.clear();
+            invalidate();
+        }
+        back.parse(frame, height, styleTable);
+
+        // the cursor is left at the beginning of the last rendered line
+        screenRows = Math.max(screenRows, Math.max(renderedRows, 1));
+        cursorRow = Math.max(renderedRows - 1, 0);
+        cursorColumn = 0;
+        currentStyle = StyleTable.DEFAULT_STYLE;
+
+        for (int row = 0; row < back.rows(); row++) {
+            if (invalidated || row >= front.rows()) {
+                renderRow(row, 0, true, out);
+            } else if (!back.rowEquals(row, front)) {
+                renderRow(row, front.rowLength(row), false, out);
+            }
+        }
+
+        if (renderedRows > back.rows()) {
+            moveTo(back.rows(), 0, out);
+            resetStyle(out);
+            out.append(OutputBuffer.CLEAR_SCREEN_BELOW);
+        }
+
+        moveTo(Math.max(back.rows() - 1, 0), 0, out);
+        resetStyle(out);
+
+        CellBuffer previous = front;
+        front = back;
+        back = previous;
+        renderedRows = front.rows();
+        screenRows = Math.max(renderedRows, 1);
+        invalidated = false;
+    }
+
+    private void renderRow(int row, int previousLength, boolean wholeRow, OutputBuffer out) {
+        int length = back.rowLength(row);
+        if (wholeRow) {
+            if (length > 0) {
+                moveTo(row, 0, out);
+                writeCells(row, 0, length, out);
+            }
+            if (length < back.columns()) {
+                moveTo(row, length, out);
+                resetStyle(out);
+                out.append(OutputBuffer.CLEAR_LINE);
+            }
+            return;
+        }
+
+        int common = Math.min(length, previousLength);
+        int column = 0;
+        while (column < common) {
+            if (back.cellEquals(row, column, front)) {
+                column++;
+                continue;
+            }
+
+            int start = column;
+            int end = column + 1;
+            int gap = 0;
+            for (int next = end; next < common && gap <= MAX_GAP; next++) {
+                if (back.cellEquals(row, next, front)) {
+                    gap++;
+                } else {
+                    end = next + 1;
+                    gap = 0;
+                }
+            }
+
+            // never start or end in the middle of a wide character
+            if (back.codePoint(row, start) == CellBuffer.WIDE_CONTINUATION
+                    || front.codePoint(row, start) == CellBuffer.WIDE_CONTINUATION) {
+                start--;
+            }
+            while (end < common && (back.codePoint(row, end) == CellBuffer.WIDE_CONTINUATION
+                    || front.codePoint(row, end) == CellBuffer.WIDE_CONTINUATION)) {
+                end++;
+            }
+
+            moveTo(row, start, out);
+            writeCells(row, start, end, out);
+            column = end;
+        }
+
+        if (length > previousLength) {
+            int start = previousLength;
+            if (start > 0 && back.codePoint(row, start) == CellBuffer.WIDE_CONTINUATION) {
+                start--;
+            }
+            moveTo(row, start, out);
+            writeCells(row, start, length, out);
+        } else if (length < previousLength) {
+            moveTo(row, length, out);
+            resetStyle(out);
+            out.append(OutputBuffer.CLEAR_LINE);
+        }
+    }
+
+    private void writeCells(int row, int from, int to, OutputBuffer out) {
+        for (int column = from; column < to; column++) {
+            int codePoint = back.codePoint(row, column);
+            if (codePoint == CellBuffer.WIDE_CONTINUATION) {
+                continue;
+            }
+            int style = back.style(row, column);
+            if (style != currentStyle) {
+                if (currentStyle != StyleTable.DEFAULT_STYLE) {
+                    out.append(OutputBuffer.RESET_STYLE);
+                }
+                out.append(styleTable.encoded(style));
+                currentStyle = style;
+            }
+            out.appendCodePoint(codePoint);
+        }
+        cursorColumn = to;
+        if (cursorColumn >= back.columns()) {
+            // the terminal may be in a pending-wrap state, don't rely on the column
+            cursorColumn = -1;
+        }
+    }
+
+    private void resetStyle(OutputBuffer out) {
+        if (currentStyle != StyleTable.DEFAULT_STYLE) {
+            out.append(OutputBuffer.RESET_STYLE);
+            currentStyle = StyleTable.DEFAULT_STYLE;
+        }
+    }
+
+    private void moveTo(int row, int column, OutputBuffer out) {
+        if (row < cursorRow) {
+            out.csi(cursorRow - row, 'A');
+            cursorRow = row;
+        } else if (row > cursorRow) {
+            int existing = Math.min(row, screenRows - 1);
+            if (existing > cursorRow) {
+                out.csi(existing - cursorRow, 'B');
+                cursorRow = existing;
+            }
+            // rows that are not on screen yet have to be created by line feeds
+            if (row > cursorRow) {
+                resetStyle(out);
+                while (cursorRow < row) {
+                    out.append(OutputBuffer.CRLF);
+                    cursorRow++;
+                }
+                cursorColumn = 0;
+                screenRows = Math.max(screenRows, row + 1);
+            }
+        }
+
+        if (column == cursorColumn) {
+            return;
+        }
+        if (column == 0) {
+            out.append('\r');
+        } else if (cursorColumn < 0 || column < cursorColumn - column) {
+            out.append('\r').csi(column, 'C');
+        } else if (column > cursorColumn) {
+            out.csi(column - cursorColumn, 'C');
+        } else {
+            out.csi(cursorColumn - column, 'D');
+        }
+        cursorColumn = column;
+    }
+}
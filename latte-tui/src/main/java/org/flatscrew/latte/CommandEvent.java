@@ -0,0 +1,21 @@
+package org.flatscrew.latte;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.flatscrew.latte.Command")
+@Label("Command")
+@Category("Latte")
+@Description("A command executed off the event loop")
+final class CommandEvent extends Event {
+
+    @Label("Command Type")
+    String commandType;
+
+    @Label("Message Type")
+    @Description("Type of the message the command produced, if any")
+    String messageType;
+}
@@ -0,0 +1,204 @@
+package org.flatscrew.latte;
+
+import org.flatscrew.latte.command.TickCommand;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+public class CommandExecutor {
+
+    /**
+     * What a bounded executor does with a command when all of its threads are busy and its queue is full.
+     */
+    public enum QueueFullPolicy {
+        /**
+         * Waits for a free slot in the queue. The waiting happens on a submitter thread of its own, so
+         * the dispatching thread - normally the event loop - carries on.
+         */
+        BLOCK,
+        /** Runs the command on the dispatching thread. */
+        CALLER_RUNS,
+        /** Drops the command, counting it as rejected. */
+        DISCARD
+    }
+
+    private final ExecutorService executorService;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Latte-Timer-Thread");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // ticks waiting for their time, counted in flight too
+    private final AtomicInteger waitingTicks = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public CommandExecutor() {
+        this(Executors.newCachedThreadPool());
+    }
+
+    public CommandExecutor(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    public static CommandExecutor cachedThreadPool() {
+        return new CommandExecutor();
+    }
+
+    public static CommandExecutor virtualThreads() {
+        return new CommandExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public static CommandExecutor bounded(int threads, int queueCapacity, QueueFullPolicy policy) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "Latte-Command-Thread-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                rejectionHandler(policy));
+        pool.allowCoreThreadTimeOut(true);
+        return new CommandExecutor(pool);
+    }
+
+    private static RejectedExecutionHandler rejectionHandler(QueueFullPolicy policy) {
+        return switch (policy) {
+            case BLOCK -> {
+                // one thread, so commands waiting for a slot keep their dispatch order
+                ThreadPoolExecutor submitter = new ThreadPoolExecutor(
+                        0, 1,
+                        60, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        r -> {
+                            Thread t = new Thread(r, "Latte-Command-Submitter");
+                            t.setDaemon(true);
+                            return t;
+                        });
+                yield (task, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Command executor has been shut down");
+                    }
+                    submitter.execute(() -> {
+                        try {
+                            executor.getQueue().put(task);
+                            // the workers may have timed out while the queue was full
+                            executor.prestartCoreThread();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                };
+            }
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD -> new ThreadPoolExecutor.AbortPolicy();
+        };
+    }
+
+    public void shutdown() {
+        executorService.shutdown();
+        timer.shutdownNow();
+    }
+
+    public void executeIfPresent(Command command, Consumer<Message> messageConsumer) {
+        executeIfPresent(command, messageConsumer, messageConsumer);
+    }
+
+    /**
+     * Like {@link #executeIfPresent(Command, Consumer)}, but messages produced by ticks go to
+     * their own consumer, so they can be queued separately from other command results.
+     */
+    public void executeIfPresent(Command command, Consumer<Message> messageConsumer, Consumer<Message> timerConsumer) {
+        if (command == null) {
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        try {
+            if (command instanceof TickCommand tick) {
+                waitingTicks.incrementAndGet();
+                try {
+                    timer.schedule(() -> {
+                        waitingTicks.decrementAndGet();
+                        run(tick, timerConsumer);
+                    }, tick.delay().toNanos(), TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    waitingTicks.decrementAndGet();
+                    throw e;
+                }
+            } else {
+                executorService.execute(() -> run(command, messageConsumer));
+            }
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+        }
+    }
+
+    /**
+     * Runs a task on the program's timer thread after the given delay.
+     */
+    ScheduledFuture<?> schedule(Duration delay, Runnable task) {
+        return timer.schedule(task, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void run(Command command, Consumer<Message> messageConsumer) {
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        try {
+            // ticks have waited on the timer already
+            Message message = command instanceof TickCommand tick ? tick.fire() : command.execute();
+            event.end();
+            if (event.shouldCommit()) {
+                event.commandType = command.getClass().getName();
+                event.messageType = message != null ? message.getClass().getName() : null;
+                event.commit();
+            }
+            if (message != null) {
+                messageConsumer.accept(message);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            inFlight.decrementAndGet();
+            completed.increment();
+        }
+    }
+
+    /**
+     * Whether no command is running. Ticks waiting for their time don't count.
+     */
+    boolean isIdle() {
+        // in flight first: a tick firing in between shows up as running rather than not at all
+        int running = inFlight.get();
+        return running == waitingTicks.get();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long completed() {
+        return completed.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
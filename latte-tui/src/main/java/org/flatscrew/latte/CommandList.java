@@ -0,0 +1,17 @@
+package org.flatscrew.latte;
+
+import org.flatscrew.latte.message.BatchMessage;
+
+import java.util.List;
+
+/**
+ * Commands collected by {@link Model#updateBatch(List)}. The program runs them straight away instead
+ * of going through a {@link BatchMessage}; anything else executing it gets that message as usual.
+ */
+record CommandList(List<Command> commands) implements Command {
+
+    @Override
+    public Message execute() {
+        return new BatchMessage(commands.toArray(Command[]::new));
+    }
+}
@@ -0,0 +1,25 @@
+package org.flatscrew.latte;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.flatscrew.latte.Flush")
+@Label("Flush")
+@Category("Latte")
+@Description("A frame diffed and written to the terminal")
+final class FlushEvent extends Event {
+
+    @Label("Bytes")
+    @DataAmount
+    int bytes;
+
+    @Label("Lines")
+    int lines;
+
+    @Label("Cell Diffing")
+    boolean cellDiffing;
+}
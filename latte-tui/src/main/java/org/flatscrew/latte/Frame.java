@@ -0,0 +1,202 @@
+package org.flatscrew.latte;
+
+import java.util.Arrays;
+
+/**
+ * A view made of lines. Models implementing {@link FrameModel} add their lines to a frame instead
+ * of joining them into a single string that the renderer would only split up again. Frames are
+ * reused from one render to the next, so once a frame has grown to the size of the view, filling
+ * it doesn't allocate.
+ * <p>
+ * Lines are kept by reference, without copying. They must not contain line breaks and must not be
+ * modified after the frame has been handed to the renderer, so either pass strings or builders
+ * that are not reused.
+ */
+public final class Frame {
+
+    private static final int INITIAL_LINES = 64;
+
+    private CharSequence[] texts = new CharSequence[INITIAL_LINES];
+    private int[] starts = new int[INITIAL_LINES];
+    private int[] ends = new int[INITIAL_LINES];
+    private boolean[] unchanged = new boolean[INITIAL_LINES];
+    private int lineCount;
+    private String view;
+    private long sequence;
+
+    public Frame clear() {
+        Arrays.fill(texts, 0, lineCount, null);
+        lineCount = 0;
+        view = null;
+        return this;
+    }
+
+    public Frame add(CharSequence line) {
+        return add(line, 0, line.length(), false);
+    }
+
+    /**
+     * Adds a line that is the same as the line at this position in the previous frame, so the
+     * renderer can skip it without comparing.
+     */
+    public Frame addUnchanged(CharSequence line) {
+        return add(line, 0, line.length(), true);
+    }
+
+    public int lineCount() {
+        return lineCount;
+    }
+
+    public CharSequence line(int index) {
+        return texts[index].subSequence(starts[index], ends[index]);
+    }
+
+    Frame add(CharSequence text, int start, int end, boolean unchanged) {
+        if (lineCount == texts.length) {
+            int capacity = lineCount * 2;
+            texts = Arrays.copyOf(texts, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            this.unchanged = Arrays.copyOf(this.unchanged, capacity);
+        }
+        texts[lineCount] = text;
+        starts[lineCount] = start;
+        ends[lineCount] = end;
+        this.unchanged[lineCount++] = unchanged;
+        return this;
+    }
+
+    CharSequence text(int index) {
+        return texts[index];
+    }
+
+    int start(int index) {
+        return starts[index];
+    }
+
+    int end(int index) {
+        return ends[index];
+    }
+
+    boolean isUnchanged(int index) {
+        return unchanged[index];
+    }
+
+    /**
+     * Numbers frames in the order they were written, so the renderer can tell whether frames were
+     * dropped in between and the unchanged hints no longer hold.
+     */
+    long sequence() {
+        return sequence;
+    }
+
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Makes the frame hold a whole view. Splitting it into lines is left to {@link #splitView()},
+     * so that it's done by the renderer thread.
+     */
+    void setView(String view) {
+        clear();
+        this.view = view;
+    }
+
+    /**
+     * Splits the view set with {@link #setView(String)} into lines, the way
+     * {@code view.split("\n")} would, but without copying any of them.
+     */
+    void splitView() {
+        if (view == null) {
+            return;
+        }
+        String view = this.view;
+        this.view = null;
+        int end = view.length();
+        while (end > 0 && view.charAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end == 0) {
+            return;
+        }
+
+        int start = 0;
+        while (true) {
+            int newline = view.indexOf('\n', start);
+            if (newline < 0 || newline >= end) {
+                add(view, start, end, false);
+                return;
+            }
+            add(view, start, newline, false);
+            start = newline + 1;
+        }
+    }
+
+    /**
+     * Copies lines of another frame by reference.
+     */
+    void copyFrom(Frame source) {
+        clear();
+        for (int i = 0; i < source.lineCount; i++) {
+            add(source.texts[i], source.starts[i], source.ends[i], source.unchanged[i]);
+        }
+        view = source.view;
+        sequence = source.sequence;
+    }
+
+    boolean lineEquals(int index, Frame other, int otherIndex) {
+        int length = ends[index] - starts[index];
+        if (length != other.ends[otherIndex] - other.starts[otherIndex]) {
+            return false;
+        }
+
+        CharSequence text = texts[index];
+        CharSequence otherText = other.texts[otherIndex];
+        int start = starts[index];
+        int otherStart = other.starts[otherIndex];
+        if (text == otherText && start == otherStart) {
+            return true;
+        }
+        if (text instanceof String string && otherText instanceof String otherString) {
+            return string.regionMatches(start, otherString, otherStart, length);
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(start + i) != otherText.charAt(otherStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether this frame shows the same lines as the previous one. Unchanged hints are only
+     * trusted if {@code useHints} is set.
+     */
+    boolean contentEquals(Frame previous, boolean useHints) {
+        if (lineCount != previous.lineCount) {
+            return false;
+        }
+        for (int i = 0; i < lineCount; i++) {
+            if (!(useHints && unchanged[i]) && !lineEquals(i, previous, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        if (view != null) {
+            return view;
+        }
+        StringBuilder view = new StringBuilder();
+        for (int i = 0; i < lineCount; i++) {
+            if (i > 0) {
+                view.append('\n');
+            }
+            view.append(texts[i], starts[i], ends[i]);
+        }
+        return view.toString();
+    }
+}
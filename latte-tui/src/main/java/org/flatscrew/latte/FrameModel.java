@@ -0,0 +1,17 @@
+package org.flatscrew.latte;
+
+/**
+ * A model that renders its view line by line into a {@link Frame}. The program hands the frame
+ * to the renderer as it is, so large views are not joined into a single string and split up again.
+ */
+public interface FrameModel extends Model {
+
+    void view(Frame frame);
+
+    @Override
+    default String view() {
+        Frame frame = new Frame();
+        view(frame);
+        return frame.toString();
+    }
+}
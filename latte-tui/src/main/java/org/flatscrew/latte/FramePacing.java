@@ -0,0 +1,67 @@
+package org.flatscrew.latte;
+
+import java.time.Duration;
+
+/**
+ * Decides how long the renderer waits between frames. The fixed policy always uses the configured
+ * frame rate. The adaptive one stretches frames when writing to the terminal gets slow (e.g. over
+ * a congested SSH link) or when a bandwidth budget would be exceeded, and goes back to the configured
+ * frame rate once output flows freely again. Frames produced in the meantime are coalesced, only the
+ * latest view gets written.
+ */
+public final class FramePacing {
+
+    private static final Duration DEFAULT_MAX_FRAME_TIME = Duration.ofMillis(250);
+    // writing may take up to this share of a frame before frames get stretched
+    private static final double DEFAULT_WRITE_SHARE = 0.5;
+
+    private final boolean adaptive;
+    private final long maxBytesPerSecond;
+    private final long maxFrameNanos;
+    private final double writeShare;
+
+    private FramePacing(boolean adaptive, long maxBytesPerSecond, long maxFrameNanos, double writeShare) {
+        this.adaptive = adaptive;
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.maxFrameNanos = maxFrameNanos;
+        this.writeShare = writeShare;
+    }
+
+    public static FramePacing fixed() {
+        return new FramePacing(false, 0, DEFAULT_MAX_FRAME_TIME.toNanos(), DEFAULT_WRITE_SHARE);
+    }
+
+    public static FramePacing adaptive() {
+        return new FramePacing(true, 0, DEFAULT_MAX_FRAME_TIME.toNanos(), DEFAULT_WRITE_SHARE);
+    }
+
+    /**
+     * Limits average output to the given number of bytes per second. Zero means no limit.
+     */
+    public FramePacing maxBytesPerSecond(long maxBytesPerSecond) {
+        return new FramePacing(adaptive, Math.max(maxBytesPerSecond, 0), maxFrameNanos, writeShare);
+    }
+
+    /**
+     * The longest time frames may be stretched to, no matter how saturated the output is.
+     */
+    public FramePacing maxFrameTime(Duration maxFrameTime) {
+        return new FramePacing(adaptive, maxBytesPerSecond, maxFrameTime.toNanos(), writeShare);
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    long frameInterval(long baseFrameNanos, double averageWriteNanos, double averageFrameBytes) {
+        if (!adaptive) {
+            return baseFrameNanos;
+        }
+
+        long interval = Math.max(baseFrameNanos, (long) (averageWriteNanos / writeShare));
+        if (maxBytesPerSecond > 0) {
+            interval = Math.max(interval, (long) (averageFrameBytes * 1_000_000_000L / maxBytesPerSecond));
+        }
+        return Math.min(interval, Math.max(maxFrameNanos, baseFrameNanos));
+    }
+}
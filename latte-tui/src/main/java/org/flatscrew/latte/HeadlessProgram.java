@@ -0,0 +1,236 @@
+package org.flatscrew.latte;
+
+import org.flatscrew.latte.message.QuitMessage;
+import org.jline.terminal.Size;
+import org.jline.terminal.Terminal;
+import org.jline.terminal.impl.DumbTerminal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Runs a program without a real terminal, for tests and reproducible measurements. The calling
+ * thread acts as the event loop: nothing happens until {@link #step()}, which dispatches what has
+ * been sent or typed, renders every frame right away and returns once the program is idle, with
+ * no messages queued and no commands running apart from ticks waiting for their time.
+ * <p>
+ * Output goes to an in-memory terminal of a fixed size and is interpreted into a
+ * {@link VirtualScreen}. To run a program normally but on other streams, pass a terminal made
+ * for them to {@link Program#Program(Model, Terminal)} instead.
+ * <pre>
+ * HeadlessProgram program = new HeadlessProgram(new CounterModel(), 80, 24);
+ * program.start();
+ * program.type("kkk");
+ * HeadlessProgram.Step step = program.step();
+ * assert program.screen().line(3).equals(" Value: 3");
+ * </pre>
+ */
+public final class HeadlessProgram {
+
+    private static final Duration DEFAULT_STEP_TIMEOUT = Duration.ofSeconds(10);
+    private static final long IDLE_POLL_NANOS = 50_000;
+
+    /**
+     * What happened during a step.
+     *
+     * @param messages messages dispatched to the model
+     * @param frames frames the renderer wrote
+     * @param output everything written to the terminal
+     * @param nanos time spent updating, building views and rendering, without waiting for commands
+     */
+    public record Step(int messages, int frames, byte[] output, long nanos) {
+
+        public String text() {
+            return new String(output, StandardCharsets.UTF_8);
+        }
+    }
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final Terminal terminal;
+    private final Program program;
+    private final VirtualScreen screen;
+    private final InputParser inputParser;
+    private StandardRenderer renderer;
+    private boolean started;
+
+    public HeadlessProgram(Model initialModel, int width, int height) {
+        try {
+            this.terminal = new DumbTerminal(
+                    "headless", "xterm-256color", InputStream.nullInputStream(), output, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        terminal.setSize(new Size(width, height));
+        this.screen = new VirtualScreen(width, height);
+        this.program = new Program(initialModel, terminal);
+        this.inputParser = new InputParser(program::send);
+        withRenderer(StandardRenderer::new);
+    }
+
+    /**
+     * Replaces the default renderer, e.g. with one doing cell diffing. Renderers of headless
+     * programs are always synchronous.
+     */
+    public HeadlessProgram withRenderer(Function<Terminal, StandardRenderer> rendererFactory) {
+        program.withRenderer(terminal -> {
+            renderer = rendererFactory.apply(terminal).synchronous();
+            return renderer;
+        });
+        return this;
+    }
+
+    public HeadlessProgram withMessageBatching(int messagesPerFrame) {
+        program.withMessageBatching(messagesPerFrame);
+        return this;
+    }
+
+    public HeadlessProgram withCommandExecutor(CommandExecutor commandExecutor) {
+        program.withCommandExecutor(commandExecutor);
+        return this;
+    }
+
+    public HeadlessProgram withMetrics() {
+        program.withMetrics();
+        return this;
+    }
+
+    public HeadlessProgram withAltScreen() {
+        program.withAltScreen();
+        return this;
+    }
+
+    /**
+     * Starts the program: runs its init command and renders the first view.
+     */
+    public Step start() {
+        if (started) {
+            throw new IllegalStateException("Program has already been started");
+        }
+        started = true;
+        long startTime = System.nanoTime();
+        program.startHeadless();
+        long nanos = System.nanoTime() - startTime;
+        Step step = step();
+        return new Step(step.messages(), step.frames() + 1, step.output(), step.nanos() + nanos);
+    }
+
+    /**
+     * Sends a message to the model. It's dispatched by the next step.
+     */
+    public void send(Message message) {
+        ensureStarted();
+        program.send(message);
+    }
+
+    /**
+     * Types text as if it came from the keyboard, escape sequences included. The key presses are
+     * dispatched by the next step.
+     */
+    public void type(String input) {
+        ensureStarted();
+        char[] chars = input.toCharArray();
+        inputParser.feed(chars, 0, chars.length);
+        // nothing else is coming, an unfinished sequence is what it is
+        inputParser.flushPending();
+    }
+
+    /**
+     * Resizes the terminal and lets the program know, like a resized window would: the window size
+     * message is debounced, so several resizes before the next step end up as one.
+     */
+    public void resize(int width, int height) {
+        ensureStarted();
+        terminal.setSize(new Size(width, height));
+        screen.resize(width, height);
+        program.scheduleResize();
+    }
+
+    public Step step() {
+        return step(DEFAULT_STEP_TIMEOUT);
+    }
+
+    /**
+     * Dispatches messages until the program is idle or has quit. Commands run on their own
+     * threads as usual, so their messages are waited for, for up to {@code timeout}, and so is the
+     * window size message of a debounced resize.
+     */
+    public Step step(Duration timeout) {
+        ensureStarted();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long framesBefore = renderer.stats().framesRendered();
+        int messages = 0;
+        long nanos = 0;
+
+        while (program.isRunning()) {
+            long dispatchStart = System.nanoTime();
+            int dispatched = program.dispatchPending();
+            nanos += System.nanoTime() - dispatchStart;
+            messages += dispatched;
+            if (dispatched > 0) {
+                continue;
+            }
+            if (!program.hasRunningCommands() && !program.hasPendingResize()) {
+                // a command may have sent its message after the queue was found empty
+                dispatchStart = System.nanoTime();
+                dispatched = program.dispatchPending();
+                nanos += System.nanoTime() - dispatchStart;
+                messages += dispatched;
+                if (dispatched == 0) {
+                    break;
+                }
+                continue;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Program still busy after " + timeout);
+            }
+            LockSupport.parkNanos(IDLE_POLL_NANOS);
+        }
+
+        terminal.flush();
+        byte[] written = output.toByteArray();
+        output.reset();
+        screen.feed(new String(written, StandardCharsets.UTF_8));
+        int frames = (int) (renderer.stats().framesRendered() - framesBefore);
+        return new Step(messages, frames, written, nanos);
+    }
+
+    /**
+     * Quits the program, rendering its final view.
+     */
+    public Step quit() {
+        send(new QuitMessage());
+        return step();
+    }
+
+    public boolean isRunning() {
+        return program.isRunning();
+    }
+
+    public Model model() {
+        return program.model();
+    }
+
+    public VirtualScreen screen() {
+        return screen;
+    }
+
+    public RendererStats rendererStats() {
+        return renderer.stats();
+    }
+
+    public ProgramMetrics metrics() {
+        return program.metrics();
+    }
+
+    private void ensureStarted() {
+        if (!started) {
+            throw new IllegalStateException("Program has not been started");
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.flatscrew.latte;
+
+import org.flatscrew.latte.message.KeyPress;
+import org.flatscrew.latte.message.KeyType;
+import org.flatscrew.latte.message.PasteMessage;
+
+import java.util.function.Consumer;
+
+/**
+ * Turns raw terminal input into key messages. Input is fed in chunks of whatever size the
+ * terminal delivered; escape sequences may be split between chunks. CSI and SS3 sequences are
+ * decoded into typed keys with modifiers and bracketed paste is collected into a single message.
+ * When input stops in the middle of an escape sequence, the caller waits a little and then calls
+ * {@link #flushPending()}, which is how a lone press of the escape key is told apart from the
+ * start of a sequence.
+ */
+public final class InputParser {
+
+    private enum State {
+        GROUND, ESCAPE, CSI, SS3, PASTE
+    }
+
+    private static final char ESC = '\033';
+    private static final String PASTE_END = "\033[201~";
+    private static final int MAX_SEQUENCE_LENGTH = 32;
+
+    private static final int MODIFIER_SHIFT = 1;
+    private static final int MODIFIER_ALT = 2;
+    private static final int MODIFIER_CTRL = 4;
+
+    private final Consumer<Message> messageConsumer;
+    private final StringBuilder parameters = new StringBuilder();
+    private final StringBuilder paste = new StringBuilder();
+    private State state = State.GROUND;
+    private char highSurrogate;
+    // escape came before the high surrogate, the low one arrives without it
+    private boolean highSurrogateAlt;
+
+    public InputParser(Consumer<Message> messageConsumer) {
+        this.messageConsumer = messageConsumer;
+    }
+
+    /**
+     * Whether an escape sequence has been started but not finished yet.
+     */
+    public boolean isPending() {
+        return state == State.ESCAPE || state == State.CSI || state == State.SS3;
+    }
+
+    public void feed(char[] chars, int offset, int length) {
+        for (int index = offset; index < offset + length; index++) {
+            feed(chars[index]);
+        }
+    }
+
+    private void feed(char c) {
+        switch (state) {
+            case GROUND -> {
+                if (c == ESC) {
+                    state = State.ESCAPE;
+                } else {
+                    character(c, false);
+                }
+            }
+            case ESCAPE -> {
+                if (c == '[') {
+                    parameters.setLength(0);
+                    state = State.CSI;
+                } else if (c == 'O') {
+                    state = State.SS3;
+                } else if (c == ESC) {
+                    // the first escape was pressed on its own
+                    key(KeyType.ESCAPE, ESC, 0);
+                } else {
+                    state = State.GROUND;
+                    character(c, true);
+                }
+            }
+            case CSI -> {
+                if (c >= 0x20 && c <= 0x3F && parameters.length() < MAX_SEQUENCE_LENGTH) {
+                    parameters.append(c);
+                } else if (c >= 0x40 && c <= 0x7E) {
+                    state = State.GROUND;
+                    csi(c);
+                } else {
+                    // malformed sequence, drop it
+                    state = c == ESC ? State.ESCAPE : State.GROUND;
+                }
+            }
+            case SS3 -> {
+                state = State.GROUND;
+                ss3(c);
+            }
+            case PASTE -> {
+                paste.append(c);
+                int end = paste.length() - PASTE_END.length();
+                if (c == '~' && end >= 0 && paste.indexOf(PASTE_END, end) == end) {
+                    paste.setLength(end);
+                    state = State.GROUND;
+                    messageConsumer.accept(new PasteMessage(paste.toString()));
+                    paste.setLength(0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gives up on waiting for the rest of an escape sequence and emits what has been received so far.
+     */
+    public void flushPending() {
+        switch (state) {
+            case ESCAPE -> key(KeyType.ESCAPE, ESC, 0);
+            case CSI -> {
+                messageConsumer.accept(new KeyPress(KeyType.RUNE, '[', true, false, false));
+                for (int i = 0; i < parameters.length(); i++) {
+                    character(parameters.charAt(i), false);
+                }
+            }
+            case SS3 -> messageConsumer.accept(new KeyPress(KeyType.RUNE, 'O', true, false, false));
+            default -> {
+                return;
+            }
+        }
+        state = State.GROUND;
+    }
+
+    private void character(char c, boolean alt) {
+        if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+            highSurrogateAlt = alt;
+            return;
+        }
+
+        int codePoint = c;
+        if (Character.isLowSurrogate(c) && highSurrogate != 0) {
+            codePoint = Character.toCodePoint(highSurrogate, c);
+            alt |= highSurrogateAlt;
+        }
+        highSurrogate = 0;
+
+        int modifiers = alt ? MODIFIER_ALT : 0;
+        switch (codePoint) {
+            case '\r', '\n' -> key(KeyType.ENTER, codePoint, modifiers);
+            case '\t' -> key(KeyType.TAB, codePoint, modifiers);
+            case 127, '\b' -> key(KeyType.BACKSPACE, codePoint, modifiers);
+            default -> {
+                if (codePoint < 0x20) {
+                    key(KeyType.CONTROL, codePoint, modifiers | MODIFIER_CTRL);
+                } else {
+                    key(KeyType.RUNE, codePoint, modifiers);
+                }
+            }
+        }
+    }
+
+    private void csi(char finalChar) {
+        if (!parameters.isEmpty() && (parameters.charAt(0) < '0' || parameters.charAt(0) > ';')) {
+            // private sequences (mouse reports, replies to queries) are not keys
+            return;
+        }
+
+        int first = parameter(0, 1);
+        int modifiers = Math.max(parameter(1, 1) - 1, 0);
+        switch (finalChar) {
+            case 'A' -> key(KeyType.UP, 0, modifiers);
+            case 'B' -> key(KeyType.DOWN, 0, modifiers);
+            case 'C' -> key(KeyType.RIGHT, 0, modifiers);
+            case 'D' -> key(KeyType.LEFT, 0, modifiers);
+            case 'H' -> key(KeyType.HOME, 0, modifiers);
+            case 'F' -> key(KeyType.END, 0, modifiers);
+            case 'P' -> key(KeyType.F1, 0, modifiers);
+            case 'Q' -> key(KeyType.F2, 0, modifiers);
+            case 'R' -> key(KeyType.F3, 0, modifiers);
+            case 'S' -> key(KeyType.F4, 0, modifiers);
+            case 'Z' -> key(KeyType.TAB, '\t', modifiers | MODIFIER_SHIFT);
+            case '~' -> tilde(first, modifiers);
+            default -> {
+                // unknown sequence
+            }
+        }
+    }
+
+    private void tilde(int code, int modifiers) {
+        KeyType type = switch (code) {
+            case 1, 7 -> KeyType.HOME;
+            case 2 -> KeyType.INSERT;
+            case 3 -> KeyType.DELETE;
+            case 4, 8 -> KeyType.END;
+            case 5 -> KeyType.PAGE_UP;
+            case 6 -> KeyType.PAGE_DOWN;
+            case 11 -> KeyType.F1;
+            case 12 -> KeyType.F2;
+            case 13 -> KeyType.F3;
+            case 14 -> KeyType.F4;
+            case 15 -> KeyType.F5;
+            case 17 -> KeyType.F6;
+            case 18 -> KeyType.F7;
+            case 19 -> KeyType.F8;
+            case 20 -> KeyType.F9;
+            case 21 -> KeyType.F10;
+            case 23 -> KeyType.F11;
+            case 24 -> KeyType.F12;
+            case 200 -> {
+                state = State.PASTE;
+                paste.setLength(0);
+                yield null;
+            }
+            default -> null;
+        };
+        if (type != null) {
+            key(type, 0, modifiers);
+        }
+    }
+
+    private void ss3(char c) {
+        switch (c) {
+            case 'A' -> key(KeyType.UP, 0, 0);
+            case 'B' -> key(KeyType.DOWN, 0, 0);
+            case 'C' -> key(KeyType.RIGHT, 0, 0);
+            case 'D' -> key(KeyType.LEFT, 0, 0);
+            case 'H' -> key(KeyType.HOME, 0, 0);
+            case 'F' -> key(KeyType.END, 0, 0);
+            case 'P' -> key(KeyType.F1, 0, 0);
+            case 'Q' -> key(KeyType.F2, 0, 0);
+            case 'R' -> key(KeyType.F3, 0, 0);
+            case 'S' -> key(KeyType.F4, 0, 0);
+            default -> {
+                // unknown sequence
+            }
+        }
+    }
+
+    /**
+     * Reads the n-th semicolon separated numeric parameter of the current CSI sequence.
+     */
+    private int parameter(int n, int defaultValue) {
+        int index = 0;
+        for (int skip = n; skip > 0; index++) {
+            if (index >= parameters.length()) {
+                return defaultValue;
+            }
+            if (parameters.charAt(index) == ';') {
+                skip--;
+            }
+        }
+
+        int value = 0;
+        boolean found = false;
+        for (; index < parameters.length(); index++) {
+            char c = parameters.charAt(index);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+            found = true;
+        }
+        return found ? value : defaultValue;
+    }
+
+    private void key(KeyType type, int key, int modifiers) {
+        messageConsumer.accept(new KeyPress(
+                type,
+                key,
+                (modifiers & MODIFIER_ALT) != 0,
+                (modifiers & MODIFIER_CTRL) != 0,
+                (modifiers & MODIFIER_SHIFT) != 0));
+    }
+}
@@ -0,0 +1,213 @@
+package org.flatscrew.latte;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A message queue with a bounded lane per {@link MessageLane}. Lanes are served strictly in order,
+ * so key presses are picked up next even when thousands of command results or ticks are waiting,
+ * and every lane has its own {@link OverflowPolicy} deciding what happens once it is full.
+ * <p>
+ * By default all lanes block their senders when full, which slows down runaway producers to the
+ * pace of the event loop instead of letting the queue grow without limit.
+ */
+public final class LaneMessageQueue implements MessageQueue {
+
+    private static final MessageLane[] LANES = MessageLane.values();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Lane[] lanes = new Lane[LANES.length];
+    private volatile Thread consumer;
+    private boolean closed;
+    private int size;
+
+    public LaneMessageQueue() {
+        lane(MessageLane.INPUT, 1024, OverflowPolicy.block());
+        lane(MessageLane.CONTROL, 256, OverflowPolicy.block());
+        lane(MessageLane.COMMAND, 4096, OverflowPolicy.block());
+        lane(MessageLane.TIMER, 1024, OverflowPolicy.block());
+    }
+
+    /**
+     * Sets how many messages a lane holds and what happens when it is full. Has to be called
+     * before the queue is handed to a program.
+     */
+    public LaneMessageQueue lane(MessageLane lane, int capacity, OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A lane has to hold at least one message");
+        }
+        lanes[lane.ordinal()] = new Lane(capacity, policy, lock.newCondition());
+        return this;
+    }
+
+    @Override
+    public boolean offer(Message message, MessageLane lane) throws InterruptedException {
+        Lane target = lanes[lane.ordinal()];
+        lock.lockInterruptibly();
+        try {
+            if (closed) {
+                return false;
+            }
+
+            Object key = null;
+            if (target.policy.kind() == OverflowPolicy.Kind.COALESCE) {
+                key = target.policy.keyOf(message);
+                Entry waiting = key != null ? target.waitingByKey.get(key) : null;
+                if (waiting != null) {
+                    waiting.message = message;
+                    target.coalesced++;
+                    return true;
+                }
+            }
+
+            if (target.entries.size() >= target.capacity) {
+                if (target.policy.kind() == OverflowPolicy.Kind.BLOCK) {
+                    while (!closed && target.entries.size() >= target.capacity && Thread.currentThread() != consumer) {
+                        target.notFull.await();
+                    }
+                    if (closed) {
+                        return false;
+                    }
+                } else {
+                    target.remove();
+                    target.dropped++;
+                    size--;
+                }
+            }
+
+            target.add(new Entry(message, key));
+            size++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Message take() throws InterruptedException {
+        consumer = Thread.currentThread();
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            return poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(List<Message> messages, int maxMessages) {
+        consumer = Thread.currentThread();
+        lock.lock();
+        try {
+            int drained = 0;
+            while (drained < maxMessages && size > 0) {
+                messages.add(poll());
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Message poll() {
+        for (Lane lane : lanes) {
+            if (!lane.entries.isEmpty()) {
+                size--;
+                return lane.remove();
+            }
+        }
+        throw new IllegalStateException("Queue is empty");
+    }
+
+    @Override
+    public int depth(MessageLane lane) {
+        return lanes[lane.ordinal()].depth;
+    }
+
+    /**
+     * Number of messages the lane dropped because it was full.
+     */
+    public long dropped(MessageLane lane) {
+        return lanes[lane.ordinal()].dropped;
+    }
+
+    /**
+     * Number of messages that replaced a waiting message with the same key.
+     */
+    public long coalesced(MessageLane lane) {
+        return lanes[lane.ordinal()].coalesced;
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            for (Lane lane : lanes) {
+                lane.notFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Entry {
+
+        private Message message;
+        private final Object key;
+
+        private Entry(Message message, Object key) {
+            this.message = message;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Guarded by the queue's lock, except for the counters read by gauges.
+     */
+    private static final class Lane {
+
+        private final int capacity;
+        private final OverflowPolicy policy;
+        private final Condition notFull;
+        private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+        private final Map<Object, Entry> waitingByKey = new HashMap<>();
+        private volatile int depth;
+        private volatile long dropped;
+        private volatile long coalesced;
+
+        private Lane(int capacity, OverflowPolicy policy, Condition notFull) {
+            this.capacity = capacity;
+            this.policy = policy;
+            this.notFull = notFull;
+        }
+
+        private void add(Entry entry) {
+            entries.addLast(entry);
+            if (entry.key != null) {
+                waitingByKey.put(entry.key, entry);
+            }
+            depth = entries.size();
+        }
+
+        private Message remove() {
+            Entry entry = entries.removeFirst();
+            if (entry.key != null) {
+                waitingByKey.remove(entry.key, entry);
+            }
+            depth = entries.size();
+            notFull.signal();
+            return entry.message;
+        }
+    }
+}
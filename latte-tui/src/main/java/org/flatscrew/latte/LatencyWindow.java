@@ -0,0 +1,39 @@
+package org.flatscrew.latte;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The most recent durations of something, kept to tell their percentiles. Recording is a single
+ * store; sorting is left to whoever asks. Written by one thread, read by any.
+ */
+final class LatencyWindow {
+
+    private static final int SIZE = 1024;
+
+    private final AtomicLongArray samples = new AtomicLongArray(SIZE);
+    private volatile long count;
+
+    void record(long nanos) {
+        long n = count;
+        samples.setRelease((int) (n & (SIZE - 1)), nanos);
+        count = n + 1;
+    }
+
+    /**
+     * The duration that {@code percentile} of the recent samples didn't exceed, 0 without samples.
+     */
+    long percentile(double percentile) {
+        int n = (int) Math.min(count, SIZE);
+        if (n == 0) {
+            return 0;
+        }
+        long[] sorted = new long[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = samples.getAcquire(i);
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * n);
+        return sorted[Math.min(Math.max(rank, 1), n) - 1];
+    }
+}
@@ -0,0 +1,38 @@
+package org.flatscrew.latte;
+
+import org.flatscrew.latte.message.EnterAltScreen;
+import org.flatscrew.latte.message.ExitAltScreen;
+import org.flatscrew.latte.message.KeyPress;
+import org.flatscrew.latte.message.PasteMessage;
+import org.flatscrew.latte.message.QuitMessage;
+import org.flatscrew.latte.message.WindowSizeMessage;
+
+/**
+ * Lanes of the message queue, in the order they are served: a message is only taken from a lane
+ * when all lanes before it are empty.
+ */
+public enum MessageLane {
+
+    /** Key presses and pastes. */
+    INPUT,
+    /** Messages the program acts on itself: quitting, switching screens, resizes. */
+    CONTROL,
+    /** Results of commands and messages sent to the program from outside. */
+    COMMAND,
+    /** Results of tick commands. */
+    TIMER;
+
+    static MessageLane of(Message message) {
+        if (message instanceof KeyPress || message instanceof PasteMessage) {
+            return INPUT;
+        }
+        if (message instanceof Quit
+                || message instanceof QuitMessage
+                || message instanceof EnterAltScreen
+                || message instanceof ExitAltScreen
+                || message instanceof WindowSizeMessage) {
+            return CONTROL;
+        }
+        return COMMAND;
+    }
+}
@@ -0,0 +1,37 @@
+package org.flatscrew.latte;
+
+import java.util.List;
+
+/**
+ * The queue messages wait in until the program's event loop picks them up. Any number of threads
+ * may offer messages; only the event loop takes them.
+ */
+public interface MessageQueue {
+
+    /**
+     * Adds a message to the given lane. Depending on how the lane handles overflow, this may block
+     * until there is room. Returns false if the message was dropped.
+     */
+    boolean offer(Message message, MessageLane lane) throws InterruptedException;
+
+    /**
+     * Takes the next message, waiting for one if the queue is empty.
+     */
+    Message take() throws InterruptedException;
+
+    /**
+     * Moves up to {@code maxMessages} waiting messages into the given list without blocking.
+     * Returns how many were moved.
+     */
+    int drainTo(List<Message> messages, int maxMessages);
+
+    /**
+     * Number of messages currently waiting in the given lane.
+     */
+    int depth(MessageLane lane);
+
+    /**
+     * Releases producers blocked on a full lane. Messages offered afterwards are dropped.
+     */
+    void close();
+}
@@ -0,0 +1,57 @@
+package org.flatscrew.latte;
+
+/**
+ * Collects what the event loop does for {@link Program#metrics()}. Only the event loop records,
+ * any thread may read.
+ */
+final class MetricsCollector {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final LatencyWindow updateTimes = new LatencyWindow();
+    private final LatencyWindow viewTimes = new LatencyWindow();
+    private volatile long updates;
+    private volatile long secondStart = System.nanoTime();
+    private volatile long updatesThisSecond;
+    private volatile long updatesLastSecond;
+
+    void recordUpdate(int messages, long nanos, long now) {
+        updateTimes.record(nanos);
+        updates += messages;
+        long elapsed = now - secondStart;
+        if (elapsed >= SECOND) {
+            // after a quiet second the last one saw nothing
+            updatesLastSecond = elapsed < 2 * SECOND ? updatesThisSecond : 0;
+            updatesThisSecond = 0;
+            secondStart = now;
+        }
+        updatesThisSecond += messages;
+    }
+
+    void recordView(long nanos) {
+        viewTimes.record(nanos);
+    }
+
+    long updates() {
+        return updates;
+    }
+
+    /**
+     * Messages applied during the last full second.
+     */
+    long updatesPerSecond() {
+        long elapsed = System.nanoTime() - secondStart;
+        if (elapsed >= 2 * SECOND) {
+            return 0;
+        }
+        return elapsed >= SECOND ? updatesThisSecond : updatesLastSecond;
+    }
+
+    LatencyWindow updateTimes() {
+        return updateTimes;
+    }
+
+    LatencyWindow viewTimes() {
+        return viewTimes;
+    }
+}
@@ -0,0 +1,40 @@
+package org.flatscrew.latte;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public interface Model {
+
+    Command init();
+    UpdateResult<? extends Model> update(Message msg);
+    String view();
+
+    /**
+     * Applies several messages at once. Called by the program when it drains more than one message
+     * from the queue before rendering a frame. The default implementation applies them one by one
+     * and hands all resulting commands back to the program, which runs them without a round trip
+     * through the message queue; models can override it to process a run of messages in bulk.
+     * The list is only valid for the duration of the call.
+     */
+    default UpdateResult<? extends Model> updateBatch(List<Message> messages) {
+        Model model = this;
+        List<Command> commands = null;
+        for (Message message : messages) {
+            UpdateResult<? extends Model> updateResult = model.update(message);
+            model = updateResult.model();
+            if (updateResult.command() != null) {
+                if (commands == null) {
+                    commands = new ArrayList<>();
+                }
+                commands.add(updateResult.command());
+            }
+        }
+
+        if (commands == null) {
+            return UpdateResult.from(model);
+        } else if (commands.size() == 1) {
+            return UpdateResult.from(model, commands.get(0));
+        }
+        return UpdateResult.from(model, new CommandList(commands));
+    }
+}
@@ -0,0 +1,275 @@
+package org.flatscrew.latte;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free message queue: each {@link MessageLane} is an array-backed ring buffer that any
+ * number of threads offer to and only the event loop takes from. Offering doesn't allocate and
+ * producers never wait for each other apart from a single compare-and-set. When there is nothing
+ * to take the event loop parks, and the producer that brings the next message unparks it.
+ * <p>
+ * Lanes are served in order, like in {@link LaneMessageQueue}, but all of them block senders when
+ * full; use the lane queue where messages should be dropped or coalesced instead.
+ */
+public final class MpscMessageQueue implements MessageQueue {
+
+    private static final MessageLane[] LANES = MessageLane.values();
+    // a full lane is usually drained within microseconds, so producers spin and then give way to
+    // the event loop for a while before parking
+    private static final int SPINS_BEFORE_YIELDING = 64;
+    private static final int SPINS_BEFORE_PARKING = 1024;
+    private static final long FULL_LANE_PARK_NANOS = 50_000;
+
+    private final Ring[] lanes = new Ring[LANES.length];
+    private volatile Thread consumer;
+    private volatile boolean consumerParked;
+    private volatile boolean closed;
+
+    public MpscMessageQueue() {
+        lane(MessageLane.INPUT, 1024);
+        lane(MessageLane.CONTROL, 256);
+        lane(MessageLane.COMMAND, 4096);
+        lane(MessageLane.TIMER, 1024);
+    }
+
+    /**
+     * Sets how many messages a lane holds, rounded up to a power of two. Has to be called before
+     * the queue is handed to a program.
+     */
+    public MpscMessageQueue lane(MessageLane lane, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A lane has to hold at least one message");
+        }
+        lanes[lane.ordinal()] = new Ring(Math.max(Integer.highestOneBit(capacity - 1) << 1, 2));
+        return this;
+    }
+
+    @Override
+    public boolean offer(Message message, MessageLane lane) throws InterruptedException {
+        Ring ring = lanes[lane.ordinal()];
+        int spins = 0;
+        while (!closed) {
+            if (ring.offer(message)) {
+                if (consumerParked) {
+                    // unparking is costly, spare the producers following until the consumer runs
+                    consumerParked = false;
+                    LockSupport.unpark(consumer);
+                }
+                return true;
+            }
+
+            if (Thread.currentThread() == consumer) {
+                // nothing would ever make room for the event loop
+                ring.overflow(message);
+                return true;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (spins++ < SPINS_BEFORE_YIELDING) {
+                Thread.onSpinWait();
+            } else if (spins < SPINS_BEFORE_PARKING) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, FULL_LANE_PARK_NANOS);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Message take() throws InterruptedException {
+        consumer = Thread.currentThread();
+        while (true) {
+            Message message = poll();
+            if (message != null) {
+                return message;
+            }
+
+            // announce parking before looking at the tails, a producer claiming a slot in between
+            // either gets seen here or sees the flag and unparks
+            consumerParked = true;
+            if (isClaimed()) {
+                // claimed but not filled in yet, give the producer a chance to finish
+                consumerParked = false;
+                Thread.yield();
+                continue;
+            }
+            LockSupport.park(this);
+            consumerParked = false;
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    @Override
+    public int drainTo(List<Message> messages, int maxMessages) {
+        Thread current = Thread.currentThread();
+        if (consumer != current) {
+            consumer = current;
+        }
+        int drained = 0;
+        for (int i = 0; i < lanes.length && drained < maxMessages; i++) {
+            Message message;
+            while (drained < maxMessages && (message = poll(i)) != null) {
+                messages.add(message);
+                drained++;
+            }
+        }
+        return drained;
+    }
+
+    private Message poll() {
+        for (int i = 0; i < lanes.length; i++) {
+            Message message = poll(i);
+            if (message != null) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    private Message poll(int lane) {
+        return lanes[lane].poll();
+    }
+
+    private boolean isClaimed() {
+        for (Ring ring : lanes) {
+            if (ring.tail != ring.head) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int depth(MessageLane lane) {
+        return lanes[lane.ordinal()].depth();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    // the producer and consumer positions are padded onto cache lines of their own, so producers
+    // bumping the tail don't keep invalidating the line the consumer reads the head from
+
+    @SuppressWarnings("unused")
+    private abstract static class TailPadding {
+        private long p00, p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    private abstract static class Tail extends TailPadding {
+        protected volatile long tail;
+    }
+
+    @SuppressWarnings("unused")
+    private abstract static class HeadPadding extends Tail {
+        private long p10, p11, p12, p13, p14, p15, p16, p17;
+    }
+
+    private abstract static class Head extends HeadPadding {
+        protected volatile long head;
+    }
+
+    @SuppressWarnings("unused")
+    private abstract static class EndPadding extends Head {
+        private long p20, p21, p22, p23, p24, p25, p26, p27;
+    }
+
+    /**
+     * A bounded multi-producer, single-consumer ring. Every slot has a sequence number telling
+     * whose turn it is: a producer may fill a slot whose sequence equals the position it claimed,
+     * and the consumer may empty it once the sequence is one past that position.
+     * <p>
+     * Messages the event loop sends to its own lane while it's full go to an unbounded overflow
+     * instead, stamped with the position the ring had reached. They're taken once the head gets
+     * there, so the lane still hands out messages in the order they were sent.
+     */
+    private static final class Ring extends EndPadding {
+
+        private static final VarHandle TAIL;
+        private static final VarHandle HEAD;
+        private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                TAIL = lookup.findVarHandle(Tail.class, "tail", long.class);
+                HEAD = lookup.findVarHandle(Head.class, "head", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final Message[] slots;
+        private final long[] sequences;
+        private final int mask;
+        // only ever touched by the event loop
+        private final ArrayDeque<Overflowed> overflow = new ArrayDeque<>();
+
+        private Ring(int capacity) {
+            this.slots = new Message[capacity];
+            this.sequences = new long[capacity];
+            this.mask = capacity - 1;
+            for (int i = 0; i < capacity; i++) {
+                sequences[i] = i;
+            }
+        }
+
+        private boolean offer(Message message) {
+            long position = tail;
+            while (true) {
+                int index = (int) position & mask;
+                long difference = (long) SEQUENCES.getAcquire(sequences, index) - position;
+                if (difference == 0) {
+                    if (TAIL.compareAndSet(this, position, position + 1)) {
+                        slots[index] = message;
+                        SEQUENCES.setRelease(sequences, index, position + 1);
+                        return true;
+                    }
+                } else if (difference < 0) {
+                    // the consumer hasn't emptied this slot since the last lap
+                    return false;
+                }
+                position = tail;
+            }
+        }
+
+        private void overflow(Message message) {
+            overflow.addLast(new Overflowed(message, tail));
+        }
+
+        private Message poll() {
+            // only the consumer moves the head
+            long position = (long) HEAD.get(this);
+            Overflowed overflowed = overflow.peekFirst();
+            if (overflowed != null && overflowed.position() <= position) {
+                return overflow.removeFirst().message();
+            }
+            int index = (int) position & mask;
+            if ((long) SEQUENCES.getAcquire(sequences, index) != position + 1) {
+                return null;
+            }
+            Message message = slots[index];
+            slots[index] = null;
+            SEQUENCES.setRelease(sequences, index, position + slots.length);
+            HEAD.setRelease(this, position + 1);
+            return message;
+        }
+
+        private int depth() {
+            long depth = tail - head;
+            return (int) Math.max(0, Math.min(depth, slots.length));
+        }
+    }
+
+    private record Overflowed(Message message, long position) {
+    }
+}
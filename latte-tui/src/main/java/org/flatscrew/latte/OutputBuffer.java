@@ -0,0 +1,188 @@
+package org.flatscrew.latte;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A reusable, growable byte buffer that frames are encoded into in the terminal's charset and then
+ * handed to the terminal's output stream in a single write. Once it has grown to the size of a
+ * typical frame, encoding and writing a frame doesn't allocate.
+ * <p>
+ * ASCII and UTF-8 are encoded by hand. Other charsets go through a {@link CharsetEncoder} for
+ * anything beyond ASCII, which all terminal charsets agree on, so escape sequences are written as
+ * they are.
+ */
+final class OutputBuffer {
+
+    static final byte[] CLEAR_LINE = ascii("\033[K");
+    static final byte[] CLEAR_SCREEN_BELOW = ascii("\033[J");
+    static final byte[] RESET_STYLE = ascii("\033[0m");
+    static final byte[] CARRIAGE_RETURN_CLEAR_LINE = ascii("\r\033[K");
+    static final byte[] CRLF = ascii("\r\n");
+
+    // null for UTF-8
+    private final CharsetEncoder encoder;
+    private final char[] surrogates = new char[2];
+    private byte[] bytes;
+    private int size;
+
+    OutputBuffer(Charset charset) {
+        this(charset, 8192);
+    }
+
+    OutputBuffer(Charset charset, int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+        this.encoder = charset == null || StandardCharsets.UTF_8.equals(charset) ? null
+                : charset.newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    static byte[] ascii(String sequence) {
+        return sequence.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    OutputBuffer append(byte[] sequence) {
+        ensureCapacity(sequence.length);
+        System.arraycopy(sequence, 0, bytes, size, sequence.length);
+        size += sequence.length;
+        return this;
+    }
+
+    OutputBuffer append(char asciiChar) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) asciiChar;
+        return this;
+    }
+
+    /**
+     * Appends {@code ESC [ n final}, the shape of all cursor movement sequences.
+     */
+    OutputBuffer csi(int n, char finalChar) {
+        ensureCapacity(16);
+        bytes[size++] = '\033';
+        bytes[size++] = '[';
+        appendInt(n);
+        bytes[size++] = (byte) finalChar;
+        return this;
+    }
+
+    OutputBuffer appendInt(int value) {
+        ensureCapacity(11);
+        if (value < 0) {
+            bytes[size++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = size + digits - 1; i >= size; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+        return this;
+    }
+
+    OutputBuffer append(CharSequence text) {
+        return append(text, 0, text.length());
+    }
+
+    OutputBuffer append(CharSequence text, int start, int end) {
+        ensureCapacity(end - start);
+        int index = start;
+        // ASCII fast path, one byte per char
+        while (index < end) {
+            char c = text.charAt(index);
+            if (c >= 0x80) {
+                break;
+            }
+            bytes[size++] = (byte) c;
+            index++;
+        }
+        if (encoder != null && index < end) {
+            return encode(CharBuffer.wrap(text, index, end));
+        }
+        while (index < end) {
+            char c = text.charAt(index++);
+            if (c < 0x80) {
+                ensureCapacity(1);
+                bytes[size++] = (byte) c;
+            } else if (Character.isHighSurrogate(c) && index < end && Character.isLowSurrogate(text.charAt(index))) {
+                appendCodePoint(Character.toCodePoint(c, text.charAt(index++)));
+            } else {
+                appendCodePoint(c);
+            }
+        }
+        return this;
+    }
+
+    OutputBuffer appendCodePoint(int codePoint) {
+        ensureCapacity(4);
+        if (encoder != null && codePoint >= 0x80) {
+            return encode(CharBuffer.wrap(surrogates, 0, Character.toChars(codePoint, surrogates, 0)));
+        }
+        if (codePoint < 0x80) {
+            bytes[size++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            bytes[size++] = (byte) (0xC0 | (codePoint >> 6));
+            bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            if (Character.isSurrogate((char) codePoint)) {
+                bytes[size++] = '?';
+                return this;
+            }
+            bytes[size++] = (byte) (0xE0 | (codePoint >> 12));
+            bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+            bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        return this;
+    }
+
+    private OutputBuffer encode(CharBuffer text) {
+        ensureCapacity((int) Math.ceil(text.remaining() * encoder.maxBytesPerChar()));
+        ByteBuffer out = ByteBuffer.wrap(bytes, size, bytes.length - size);
+        encoder.reset();
+        // there is room for the worst case, so neither can overflow
+        encoder.encode(text, out, true);
+        encoder.flush(out);
+        size = out.position();
+        return this;
+    }
+
+    void writeTo(OutputStream output) throws IOException {
+        output.write(bytes, 0, size);
+        output.flush();
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+        }
+    }
+}
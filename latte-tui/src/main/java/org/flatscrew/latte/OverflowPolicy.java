@@ -0,0 +1,57 @@
+package org.flatscrew.latte;
+
+import java.util.function.Function;
+
+/**
+ * Decides what happens to a message offered to a full lane of a {@link LaneMessageQueue}.
+ */
+public final class OverflowPolicy {
+
+    enum Kind {
+        BLOCK, DROP_OLDEST, COALESCE
+    }
+
+    private static final OverflowPolicy BLOCK = new OverflowPolicy(Kind.BLOCK, null);
+    private static final OverflowPolicy DROP_OLDEST = new OverflowPolicy(Kind.DROP_OLDEST, null);
+
+    private final Kind kind;
+    private final Function<? super Message, ?> key;
+
+    private OverflowPolicy(Kind kind, Function<? super Message, ?> key) {
+        this.kind = kind;
+        this.key = key;
+    }
+
+    /**
+     * The sender waits until there is room. Messages sent by the event loop itself are never held
+     * back, since nothing would make room for them.
+     */
+    public static OverflowPolicy block() {
+        return BLOCK;
+    }
+
+    /**
+     * The oldest waiting message of the lane is dropped to make room.
+     */
+    public static OverflowPolicy dropOldest() {
+        return DROP_OLDEST;
+    }
+
+    /**
+     * A message replaces the waiting message with the same key, keeping its place in the lane, so
+     * only the latest of, say, progress updates of a download gets delivered. Messages with a null
+     * key, or without a waiting counterpart, are added; when the lane is full the oldest one is
+     * dropped.
+     */
+    public static OverflowPolicy coalesce(Function<? super Message, ?> key) {
+        return new OverflowPolicy(Kind.COALESCE, key);
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    Object keyOf(Message message) {
+        return key != null ? key.apply(message) : null;
+    }
+}
@@ -0,0 +1,467 @@
+package org.flatscrew.latte;
+
+import org.flatscrew.latte.message.*;
+import org.jline.terminal.Size;
+import org.jline.terminal.Terminal;
+import org.jline.terminal.TerminalBuilder;
+import org.jline.utils.InfoCmp;
+import org.jline.utils.NonBlockingReader;
+import org.jline.utils.Signals;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class Program {
+
+    private static final int INPUT_BUFFER_SIZE = 4096;
+    private static final long ESCAPE_SEQUENCE_TIMEOUT_MILLIS = 50;
+    // a window being dragged to a new size sends a burst of signals, only the last one counts
+    private static final Duration RESIZE_DEBOUNCE = Duration.ofMillis(50);
+
+    private Renderer renderer;
+    private final AtomicBoolean isRunning = new AtomicBoolean(false);
+    private MessageQueue messageQueue = new MpscMessageQueue();
+    private CommandExecutor commandExecutor;
+    private final List<Message> pendingMessages = new ArrayList<>();
+    private final Frame frame = new Frame();
+    private final AtomicReference<ScheduledFuture<?>> pendingResize = new AtomicReference<>();
+    private volatile Model currentModel;
+    private int messagesPerFrame = 1;
+    private MetricsCollector metrics;
+
+    private final Terminal terminal;
+
+    public Program(Model initialModel) {
+        this(initialModel, systemTerminal());
+    }
+
+    public Program(Model initialModel, Terminal terminal) {
+        this.currentModel = initialModel;
+        this.commandExecutor = new CommandExecutor();
+        this.terminal = terminal;
+
+        terminal.enterRawMode();
+        this.renderer = new StandardRenderer(terminal);
+    }
+
+    private static Terminal systemTerminal() {
+        try {
+            return TerminalBuilder.builder()
+                    .system(true)
+                    .jni(true)
+                    .build();
+        } catch (IOException e) {
+            System.err.println("Failed to initialize terminal: " + e.getMessage());
+            e.printStackTrace();
+            throw new RuntimeException("Failed to initialize terminal", e);
+        }
+    }
+
+    public Program withAltScreen() {
+        renderer.enterAltScreen();
+        return this;
+    }
+
+    /**
+     * Replaces the default {@link StandardRenderer}, e.g. with one configured differently:
+     * {@code program.withRenderer(terminal -> new StandardRenderer(terminal).withCellDiffing())}.
+     */
+    public Program withRenderer(Function<Terminal, ? extends Renderer> rendererFactory) {
+        if (isRunning.get()) {
+            throw new IllegalStateException("Cannot change the renderer of a running program");
+        }
+        Renderer newRenderer = rendererFactory.apply(terminal);
+        if (renderer.altScreen()) {
+            newRenderer.enterAltScreen();
+        }
+        renderer.stop();
+        renderer = newRenderer;
+        return this;
+    }
+
+    /**
+     * Replaces the default cached thread pool used to run commands.
+     */
+    public Program withCommandExecutor(CommandExecutor commandExecutor) {
+        if (isRunning.get()) {
+            throw new IllegalStateException("Cannot change the command executor of a running program");
+        }
+        this.commandExecutor.shutdown();
+        this.commandExecutor = commandExecutor;
+        return this;
+    }
+
+    /**
+     * Replaces the default {@link MpscMessageQueue}, e.g. with one that has differently sized lanes
+     * or a {@link LaneMessageQueue} that drops or coalesces some of the messages.
+     */
+    public Program withMessageQueue(MessageQueue messageQueue) {
+        if (isRunning.get()) {
+            throw new IllegalStateException("Cannot change the message queue of a running program");
+        }
+        this.messageQueue = messageQueue;
+        return this;
+    }
+
+    /**
+     * Lets the event loop drain up to {@code messagesPerFrame} pending messages and apply all of them
+     * before building a single view, instead of rendering after every message.
+     */
+    public Program withMessageBatching(int messagesPerFrame) {
+        if (messagesPerFrame < 1) {
+            throw new IllegalArgumentException("At least one message per frame is required");
+        }
+        this.messagesPerFrame = messagesPerFrame;
+        return this;
+    }
+
+    /**
+     * Times every update and view for {@link #metrics()}, which takes two clock reads each.
+     * Flight Recorder events are there either way, recorded only while a recording is running.
+     */
+    public Program withMetrics() {
+        if (isRunning.get()) {
+            throw new IllegalStateException("Cannot enable metrics of a running program");
+        }
+        this.metrics = new MetricsCollector();
+        return this;
+    }
+
+    /**
+     * Takes a snapshot of the program's metrics. Requires {@link #withMetrics()}.
+     */
+    public ProgramMetrics metrics() {
+        MetricsCollector metrics = this.metrics;
+        if (metrics == null) {
+            throw new IllegalStateException("Metrics are not enabled, see withMetrics()");
+        }
+
+        int queueDepth = 0;
+        for (MessageLane lane : MessageLane.values()) {
+            queueDepth += messageQueue.depth(lane);
+        }
+        RendererStats rendererStats = renderer instanceof StandardRenderer standardRenderer
+                ? standardRenderer.stats()
+                : new RendererStats(0, 0, 0, 0, 0, 0);
+        return new ProgramMetrics(
+                queueDepth,
+                metrics.updates(),
+                metrics.updatesPerSecond(),
+                rendererStats.framesRendered(),
+                rendererStats.framesSkipped(),
+                rendererStats.bytesWritten(),
+                rendererStats.lastFrameBytes(),
+                metrics.updateTimes().percentile(0.5),
+                metrics.updateTimes().percentile(0.99),
+                metrics.viewTimes().percentile(0.5),
+                metrics.viewTimes().percentile(0.99),
+                commandExecutor.inFlight());
+    }
+
+    private void startKeyboardInput() {
+        Thread inputThread = new Thread(() -> {
+            InputParser inputParser = new InputParser(this::send);
+            char[] buffer = new char[INPUT_BUFFER_SIZE];
+            try {
+                NonBlockingReader reader = terminal.reader();
+                while (isRunning.get()) {
+                    // an unfinished escape sequence is only waited for briefly, after that
+                    // it's taken as separate key presses (e.g. a lone escape)
+                    int read = inputParser.isPending()
+                            ? reader.readBuffered(buffer, ESCAPE_SEQUENCE_TIMEOUT_MILLIS)
+                            : reader.readBuffered(buffer);
+                    if (read == NonBlockingReader.READ_EXPIRED) {
+                        inputParser.flushPending();
+                    } else if (read == NonBlockingReader.EOF) {
+                        break;
+                    } else {
+                        inputParser.feed(buffer, 0, read);
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "Latte-Input-Thread");
+        inputThread.setDaemon(true);
+        inputThread.start();
+    }
+
+    public void run() {
+        if (!isRunning.compareAndSet(false, true)) {
+            throw new IllegalStateException("Program is already running!");
+        }
+
+        renderer.enableBracketedPaste();
+        startKeyboardInput();
+        handleTerminationSignals();
+
+        Model finalModel = eventLoop();
+        finish(finalModel);
+    }
+
+    /**
+     * Starts the program without reading input or handling signals. The caller then acts as the
+     * event loop, see {@link HeadlessProgram}.
+     */
+    void startHeadless() {
+        if (!isRunning.compareAndSet(false, true)) {
+            throw new IllegalStateException("Program is already running!");
+        }
+        renderer.enableBracketedPaste();
+        start();
+    }
+
+    /**
+     * Dispatches the messages queued so far on the calling thread, a batch at a time like the event
+     * loop does, until none are left or the program quits. Returns how many were dispatched.
+     */
+    int dispatchPending() {
+        int dispatched = 0;
+        while (isRunning.get() && messageQueue.drainTo(pendingMessages, messagesPerFrame) > 0) {
+            dispatched += pendingMessages.size();
+            boolean quit = dispatch(pendingMessages);
+            pendingMessages.clear();
+            if (quit) {
+                finish(currentModel);
+            }
+        }
+        return dispatched;
+    }
+
+    /**
+     * Stops a program started with {@link #startHeadless()} the way quitting would.
+     */
+    void stopHeadless() {
+        if (isRunning.get()) {
+            finish(currentModel);
+        }
+    }
+
+    boolean isRunning() {
+        return isRunning.get();
+    }
+
+    boolean hasRunningCommands() {
+        return !commandExecutor.isIdle();
+    }
+
+    /**
+     * Whether a resize is waiting for the debounce to send its window size.
+     */
+    boolean hasPendingResize() {
+        ScheduledFuture<?> resize = pendingResize.get();
+        return resize != null && !resize.isDone();
+    }
+
+    Model model() {
+        return currentModel;
+    }
+
+    private void finish(Model finalModel) {
+        // render final model view before closing
+        writeView(finalModel);
+        renderer.stop();
+        renderer.disableBracketedPaste();
+        renderer.showCursor();
+
+        if (renderer.altScreen()) {
+            renderer.exitAltScreen();
+        }
+
+        terminal.puts(InfoCmp.Capability.carriage_return);
+        terminal.puts(InfoCmp.Capability.cursor_down);
+        terminal.flush();
+
+        // Finally clean up
+        isRunning.set(false);
+        messageQueue.close();
+        commandExecutor.shutdown();
+    }
+
+    private void handleTerminationSignals() {
+        Signals.register("INT", () -> send(new QuitMessage()));
+        Signals.register("TERM", () -> send(new QuitMessage()));
+        Signals.register("WINCH", this::scheduleResize);
+    }
+
+    /**
+     * Sends the terminal's size once it stopped changing for a while, so a window being dragged
+     * doesn't cause a re-layout for every step.
+     */
+    void scheduleResize() {
+        ScheduledFuture<?> previous = pendingResize.getAndSet(
+                commandExecutor.schedule(RESIZE_DEBOUNCE, this::sendWindowSize));
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    private void sendWindowSize() {
+        Size size = terminal.getSize();
+        send(new WindowSizeMessage(size.getColumns(), size.getRows()));
+    }
+
+    private void start() {
+        Command initCommand = currentModel.init();
+        commandExecutor.executeIfPresent(initCommand, this::send, this::sendTimer);
+
+        renderer.hideCursor();
+        renderer.start();
+        writeView(currentModel);
+        sendWindowSize();
+    }
+
+    private Model eventLoop() {
+        start();
+
+        while (isRunning.get()) {
+            try {
+                pendingMessages.add(messageQueue.take());
+                if (messagesPerFrame > 1) {
+                    messageQueue.drainTo(pendingMessages, messagesPerFrame - 1);
+                }
+
+                boolean quit = dispatch(pendingMessages);
+                pendingMessages.clear();
+                if (quit) {
+                    return currentModel;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return currentModel;
+    }
+
+    /**
+     * Applies drained messages in order, handing consecutive model messages to the model in one go
+     * and rendering once at the end. Returns true when a quit message was encountered.
+     */
+    private boolean dispatch(List<Message> messages) {
+        boolean updated = false;
+        int from = 0;
+
+        for (int index = 0; index < messages.size(); index++) {
+            Message msg = messages.get(index);
+            if (msg instanceof Quit || msg instanceof QuitMessage) {
+                applyUpdates(messages.subList(from, index));
+                return true;
+            } else if (msg instanceof EnterAltScreen) {
+                updated |= applyUpdates(messages.subList(from, index));
+                from = index + 1;
+                renderer.enterAltScreen();
+            } else if (msg instanceof ExitAltScreen) {
+                updated |= applyUpdates(messages.subList(from, index));
+                from = index + 1;
+                renderer.exitAltScreen();
+            } else if (msg instanceof WindowSizeMessage windowSize) {
+                renderer.resize(windowSize.width(), windowSize.height());
+            } else if (msg instanceof BatchMessage batchMessage) {
+                for (Command command : batchMessage.commands()) {
+                    commandExecutor.executeIfPresent(command, this::send, this::sendTimer);
+                }
+            }
+        }
+        updated |= applyUpdates(messages.subList(from, messages.size()));
+
+        // only build a new view when the model has actually been updated
+        if (updated) {
+            writeView(currentModel);
+        }
+        return false;
+    }
+
+    private void writeView(Model model) {
+        ViewEvent event = new ViewEvent();
+        event.begin();
+        long start = metrics != null ? System.nanoTime() : 0;
+
+        String view = null;
+        if (model instanceof FrameModel frameModel) {
+            frameModel.view(frame.clear());
+        } else {
+            view = model.view();
+        }
+
+        if (metrics != null) {
+            metrics.recordView(System.nanoTime() - start);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.modelType = model.getClass().getName();
+            event.commit();
+        }
+
+        if (view != null) {
+            renderer.write(view);
+        } else {
+            renderer.write(frame);
+        }
+    }
+
+    private boolean applyUpdates(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return false;
+        }
+
+        UpdateEvent event = new UpdateEvent();
+        event.begin();
+        long start = metrics != null ? System.nanoTime() : 0;
+
+        UpdateResult<? extends Model> updateResult = messages.size() == 1
+                ? currentModel.update(messages.get(0))
+                : currentModel.updateBatch(messages);
+
+        if (metrics != null) {
+            long now = System.nanoTime();
+            metrics.recordUpdate(messages.size(), now - start, now);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.messages = messages.size();
+            event.messageType = messages.get(0).getClass().getName();
+            event.commit();
+        }
+
+        currentModel = updateResult.model();
+        renderer.notifyModelChanged();
+        if (updateResult.command() instanceof CommandList commandList) {
+            for (Command command : commandList.commands()) {
+                commandExecutor.executeIfPresent(command, this::send, this::sendTimer);
+            }
+        } else {
+            commandExecutor.executeIfPresent(updateResult.command(), this::send, this::sendTimer);
+        }
+        return true;
+    }
+
+    /**
+     * Sends a message to the model. The lane it waits in is picked by the type of the message,
+     * see {@link MessageLane}.
+     */
+    public void send(Message msg) {
+        send(msg, MessageLane.of(msg));
+    }
+
+    private void sendTimer(Message msg) {
+        send(msg, MessageLane.TIMER);
+    }
+
+    private void send(Message msg, MessageLane lane) {
+        if (!isRunning.get()) {
+            return;
+        }
+        try {
+            messageQueue.offer(msg, lane);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
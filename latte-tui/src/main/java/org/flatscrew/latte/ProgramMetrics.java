@@ -0,0 +1,37 @@
+package org.flatscrew.latte;
+
+/**
+ * A snapshot of what a program has been doing, see {@link Program#metrics()}. Percentiles are
+ * taken over the most recent 1024 updates and views.
+ *
+ * @param queueDepth messages waiting to be dispatched, in all lanes
+ * @param updates messages applied to the model so far
+ * @param updatesPerSecond messages applied during the last full second
+ * @param framesRendered frames written to the terminal
+ * @param framesSkipped views that were replaced by a newer one before they could be written
+ * @param bytesWritten total bytes written for frames
+ * @param lastFrameBytes size of the most recent frame
+ * @param updateNanosP50 median time the model took to update
+ * @param updateNanosP99 99th percentile of the time the model took to update
+ * @param viewNanosP50 median time the model took to build its view
+ * @param viewNanosP99 99th percentile of the time the model took to build its view
+ * @param commandsInFlight commands running or waiting to run, ticks included
+ */
+public record ProgramMetrics(
+        int queueDepth,
+        long updates,
+        long updatesPerSecond,
+        long framesRendered,
+        long framesSkipped,
+        long bytesWritten,
+        int lastFrameBytes,
+        long updateNanosP50,
+        long updateNanosP99,
+        long viewNanosP50,
+        long viewNanosP99,
+        int commandsInFlight) {
+
+    public long averageFrameBytes() {
+        return framesRendered > 0 ? bytesWritten / framesRendered : 0;
+    }
+}
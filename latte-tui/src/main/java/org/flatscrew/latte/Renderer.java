@@ -0,0 +1,42 @@
+package org.flatscrew.latte;
+
+public interface Renderer {
+
+    void start();
+    void stop();
+    void write(String view);
+
+    /**
+     * Renders a frame. The frame can be reused by the caller once this returns, but the lines
+     * it holds must stay as they are.
+     */
+    default void write(Frame frame) {
+        write(frame.toString());
+    }
+
+    void showCursor();
+    void hideCursor();
+    void clearScreen();
+    boolean altScreen();
+    void enterAltScreen();
+    void exitAltScreen();
+    void notifyModelChanged();
+
+    /**
+     * Turns bracketed paste on, so pasted text arrives as a single paste message. Renderers that
+     * don't write to a terminal can ignore it.
+     */
+    default void enableBracketedPaste() {
+    }
+
+    default void disableBracketedPaste() {
+    }
+
+    void repaint();
+
+    /**
+     * Tells the renderer the terminal has a new size. Renderers that don't depend on it can ignore it.
+     */
+    default void resize(int width, int height) {
+    }
+}
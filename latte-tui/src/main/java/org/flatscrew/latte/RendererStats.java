@@ -0,0 +1,24 @@
+package org.flatscrew.latte;
+
+/**
+ * A snapshot of what the renderer has done so far.
+ *
+ * @param framesRendered frames written to the terminal
+ * @param framesSkipped views that were replaced by a newer one before they could be written
+ * @param bytesWritten total bytes written for frames
+ * @param lastFrameBytes size of the most recent frame
+ * @param averageWriteNanos moving average of the time spent writing and flushing a frame
+ * @param frameIntervalNanos the current time between frames, as decided by the frame pacing
+ */
+public record RendererStats(
+        long framesRendered,
+        long framesSkipped,
+        long bytesWritten,
+        int lastFrameBytes,
+        long averageWriteNanos,
+        long frameIntervalNanos) {
+
+    public double effectiveFps() {
+        return frameIntervalNanos > 0 ? 1_000_000_000d / frameIntervalNanos : 0;
+    }
+}
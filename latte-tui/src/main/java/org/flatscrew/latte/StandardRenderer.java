@@ -0,0 +1,493 @@
+package org.flatscrew.latte;
+
+import org.flatscrew.latte.cream.TextWidth;
+import org.jline.terminal.Terminal;
+import org.jline.utils.InfoCmp;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Renders frames on its own thread, so writing to a slow terminal never holds up the program.
+ * Frames are handed over through an atomic slot; the renderer always takes the latest one and
+ * frames written in the meantime are dropped. Everything else that touches the terminal is run
+ * on the renderer thread as well, and so is all the bookkeeping of what is on screen.
+ * Configuration methods have to be called before the renderer is started.
+ */
+public class StandardRenderer implements Renderer {
+
+    private static final int DEFAULT_FPS = 60;
+    private static final byte[] CURSOR_DOWN = OutputBuffer.ascii("\033[B");
+    private static final Duration SYNCHRONIZED_OUTPUT_QUERY_TIMEOUT = Duration.ofMillis(200);
+    private static final double AVERAGE_WEIGHT = 0.2;
+
+    private volatile boolean needsRender = true;
+    private final Terminal terminal;
+    private volatile boolean isRunning = false;
+    private final AtomicReference<Frame> pendingFrame = new AtomicReference<>();
+    // a frame the renderer is done with, reused by the next write
+    private final AtomicReference<Frame> spareFrame = new AtomicReference<>();
+    private final AtomicLong frameSequence = new AtomicLong();
+    private Frame frame = new Frame();
+    private final Frame lastFrame = new Frame();
+    private long lastFrameSequence = -1;
+    private final OutputBuffer outputBuffer;
+    private final ScheduledExecutorService ticker;
+    private final long frameTime;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private volatile long lastFlushTime;
+    private FramePacing framePacing = FramePacing.fixed();
+    private volatile long frameInterval;
+    private volatile double averageWriteNanos;
+    private double averageFrameBytes;
+    private volatile long framesRendered;
+    private volatile long framesSkipped;
+    private volatile long bytesWritten;
+    private volatile int lastFrameBytes;
+    private int lastFirstLine;
+    private int linesRendered = 0;
+    private int width;
+    private int height;
+    private volatile boolean isInAltScreen;
+    private CellDiff cellDiff;
+    private boolean synchronizedOutput;
+    private boolean synchronous;
+
+    public StandardRenderer(Terminal terminal) {
+        this(terminal, DEFAULT_FPS);
+    }
+
+    public StandardRenderer(Terminal terminal, int fps) {
+        this.terminal = terminal;
+        this.outputBuffer = new OutputBuffer(terminal.encoding());
+        this.frameTime = 1000 / Math.min(Math.max(fps, 1), 120);
+        this.frameInterval = TimeUnit.MILLISECONDS.toNanos(frameTime);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Latte-Renderer-Thread");
+            t.setDaemon(true);
+            return t;
+        });
+
+        width = 0;
+        try {
+            // Get terminal size
+            this.width = terminal.getWidth();
+            this.height = terminal.getHeight();
+        } catch (Exception e) {
+            // Fallback to some reasonable defaults if we can't get the size
+            this.width = 80;
+            this.height = 24;
+        }
+    }
+
+    /**
+     * Switches from line-based to cell-based diffing: frames are parsed into a cell grid
+     * and only the cells that changed since the previous frame are sent to the terminal.
+     */
+    public StandardRenderer withCellDiffing() {
+        this.cellDiff = new CellDiff(width, height);
+        return this;
+    }
+
+    /**
+     * Wraps every frame in synchronized output sequences, if the terminal reports support for them,
+     * so it gets presented atomically. Queries the terminal, so it has to be set up before the program
+     * starts reading input.
+     */
+    public StandardRenderer withSynchronizedOutput() {
+        this.synchronizedOutput = SynchronizedOutput.isSupported(terminal, SYNCHRONIZED_OUTPUT_QUERY_TIMEOUT);
+        return this;
+    }
+
+    /**
+     * Sets how frames are paced, see {@link FramePacing#adaptive()}.
+     */
+    public StandardRenderer withFramePacing(FramePacing framePacing) {
+        this.framePacing = framePacing;
+        return this;
+    }
+
+    /**
+     * Renders every frame right away and runs terminal operations on the calling thread instead
+     * of the renderer thread, ignoring the frame rate. For headless programs and benchmarks that
+     * need to know exactly when output happens.
+     */
+    public StandardRenderer synchronous() {
+        this.synchronous = true;
+        return this;
+    }
+
+    public RendererStats stats() {
+        return new RendererStats(
+                framesRendered,
+                framesSkipped,
+                bytesWritten,
+                lastFrameBytes,
+                (long) averageWriteNanos,
+                frameInterval);
+    }
+
+    public void start() {
+        if (!isRunning) {
+            isRunning = true;
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Schedules a single flush no earlier than one frame after the previous one.
+     * Nothing is scheduled while a flush is already pending, so an idle renderer
+     * does not wake up at all.
+     */
+    private void scheduleFlush() {
+        if (isRunning && synchronous) {
+            flush();
+            return;
+        }
+        if (!isRunning || !flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        long delay = lastFlushTime + frameInterval - System.nanoTime();
+        ticker.schedule(this::flush, Math.max(delay, 0), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs a terminal operation on the renderer thread, after everything queued before it.
+     * Once the renderer has been stopped, its thread is gone and the operation runs right away.
+     */
+    private void onRendererThread(Runnable operation) {
+        if (synchronous) {
+            operation.run();
+            return;
+        }
+        try {
+            ticker.execute(operation);
+        } catch (RejectedExecutionException e) {
+            operation.run();
+        }
+    }
+
+    public void stop() {
+        isRunning = false;
+        ticker.close();
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        Frame written = pendingFrame.getAndSet(null);
+        if (written == null && !needsRender) {
+            return;
+        }
+        // cleared before rendering, so a repaint requested while this frame is written isn't lost
+        needsRender = false;
+
+        if (written != null) {
+            written.splitView();
+            spareFrame.compareAndSet(null, frame);
+            frame = written;
+        }
+        // hints compare with the previous frame written, which has to be the one on screen
+        boolean useHints = frame.sequence() == lastFrameSequence + 1;
+        if (frame.lineCount() == 0 || frame.contentEquals(lastFrame, useHints)) {
+            lastFrameSequence = frame.sequence();
+            return;
+        }
+
+        FlushEvent event = new FlushEvent();
+        event.begin();
+        outputBuffer.reset();
+        if (synchronizedOutput) {
+            outputBuffer.append(SynchronizedOutput.BEGIN);
+        }
+        if (cellDiff != null) {
+            cellDiff.render(frame, outputBuffer);
+            linesRendered = cellDiff.linesRendered();
+        } else {
+            renderLines(frame, useHints);
+        }
+        if (synchronizedOutput) {
+            outputBuffer.append(SynchronizedOutput.END);
+        }
+
+        // the whole frame goes out in a single write
+        long writeStart = System.nanoTime();
+        try {
+            outputBuffer.writeTo(terminal.output());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        lastFlushTime = System.nanoTime();
+        updatePacing(lastFlushTime - writeStart, outputBuffer.size());
+
+        lastFrame.copyFrom(frame);
+        lastFrameSequence = frame.sequence();
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.bytes = outputBuffer.size();
+            event.lines = linesRendered;
+            event.cellDiffing = cellDiff != null;
+            event.commit();
+        }
+    }
+
+    private void updatePacing(long writeNanos, int frameBytes) {
+        if (framesRendered == 0) {
+            averageWriteNanos = writeNanos;
+            averageFrameBytes = frameBytes;
+        } else {
+            averageWriteNanos += (writeNanos - averageWriteNanos) * AVERAGE_WEIGHT;
+            averageFrameBytes += (frameBytes - averageFrameBytes) * AVERAGE_WEIGHT;
+        }
+        framesRendered++;
+        bytesWritten += frameBytes;
+        lastFrameBytes = frameBytes;
+        frameInterval = framePacing.frameInterval(
+                TimeUnit.MILLISECONDS.toNanos(frameTime), averageWriteNanos, averageFrameBytes);
+    }
+
+    private void renderLines(Frame frame, boolean useHints) {
+        // If height is known and content exceeds it, only the bottom lines are shown
+        int firstLine = height > 0 ? Math.max(frame.lineCount() - height, 0) : 0;
+        int lineCount = frame.lineCount() - firstLine;
+        int lastLineCount = lastFrame.lineCount() - lastFirstLine;
+        // unchanged hints refer to line positions in the frame, they only hold when both frames are cut the same way
+        useHints &= firstLine == lastFirstLine;
+
+        // Move cursor to start of render area
+        if (linesRendered > 1) {
+            outputBuffer.csi(linesRendered - 1, 'A');
+        }
+
+        // Paint new lines
+        for (int i = 0; i < lineCount; i++) {
+            int line = firstLine + i;
+            boolean canSkip = lastLineCount > i
+                    && ((useHints && frame.isUnchanged(line)) || frame.lineEquals(line, lastFrame, lastFirstLine + i));
+
+            if (canSkip) {
+                if (i < lineCount - 1) {
+                    outputBuffer.append(CURSOR_DOWN); // Move down one line
+                }
+                continue;
+            }
+
+            CharSequence text = frame.text(line);
+            int start = frame.start(line);
+            int end = frame.end(line);
+
+            // Clear line and write new content
+            outputBuffer.append(OutputBuffer.CARRIAGE_RETURN_CLEAR_LINE);
+
+            // Truncate lines wider than the width of the window to avoid
+            // wrapping, which will mess up rendering. If we don't have the
+            // width of the window this will be ignored. No char takes more
+            // than two columns, so short lines don't need to be measured.
+            if (this.width > 0 && 2 * (end - start) > width) {
+                int visibleEnd = TextWidth.truncate(text, start, end, width);
+                outputBuffer.append(text, start, visibleEnd);
+                if (visibleEnd < end) {
+                    appendEscapeSequences(text, visibleEnd, end);
+                }
+            } else {
+                outputBuffer.append(text, start, end);
+            }
+
+            if (i < lineCount - 1) {
+                outputBuffer.append('\n');
+            }
+        }
+
+        // Clear any remaining lines from previous render
+        if (linesRendered > lineCount) {
+            outputBuffer.append(OutputBuffer.CLEAR_SCREEN_BELOW);
+        }
+
+        // Ensure cursor is at the start of the last line
+        outputBuffer.append('\r');
+
+        lastFirstLine = firstLine;
+        linesRendered = lineCount;
+    }
+
+    /**
+     * Keeps the escape sequences of the truncated part of a line, so that styles are still
+     * switched off where the line meant to.
+     */
+    private void appendEscapeSequences(CharSequence text, int start, int end) {
+        int index = start;
+        while (index < end) {
+            if (text.charAt(index) == '\033') {
+                int sequenceEnd = TextWidth.skipEscapeSequence(text, index, end);
+                outputBuffer.append(text, index, sequenceEnd);
+                index = sequenceEnd;
+            } else {
+                index++;
+            }
+        }
+    }
+
+    public void write(String view) {
+        if (!isRunning) return;
+
+        Frame next = nextFrame();
+        next.setView(view);
+        publish(next);
+    }
+
+    @Override
+    public void write(Frame frame) {
+        if (!isRunning) return;
+
+        Frame next = nextFrame();
+        next.copyFrom(frame);
+        publish(next);
+    }
+
+    private Frame nextFrame() {
+        Frame spare = spareFrame.getAndSet(null);
+        return spare != null ? spare : new Frame();
+    }
+
+    private void publish(Frame next) {
+        next.setSequence(frameSequence.getAndIncrement());
+        Frame stale = pendingFrame.getAndSet(next);
+        if (stale != null) {
+            // never made it to the screen
+            framesSkipped++;
+            spareFrame.compareAndSet(null, stale);
+        }
+        scheduleFlush();
+    }
+
+    @Override
+    public void showCursor() {
+        onRendererThread(() -> {
+            terminal.puts(InfoCmp.Capability.cursor_visible);
+            terminal.flush();
+        });
+    }
+
+    @Override
+    public void hideCursor() {
+        onRendererThread(() -> {
+            terminal.puts(InfoCmp.Capability.cursor_invisible);
+            terminal.flush();
+        });
+    }
+
+    @Override
+    public void clearScreen() {
+        onRendererThread(() -> {
+            terminal.puts(InfoCmp.Capability.clear_screen);
+            terminal.flush();
+            lastFrame.clear();
+            frame.clear();
+        });
+    }
+
+    @Override
+    public boolean altScreen() {
+        return isInAltScreen;
+    }
+
+    @Override
+    public void enterAltScreen() {
+        if (isInAltScreen || terminal.getType().equals("dumb")) {
+            return;
+        }
+        isInAltScreen = true;
+
+        onRendererThread(() -> {
+            terminal.puts(InfoCmp.Capability.enter_ca_mode);
+            terminal.puts(InfoCmp.Capability.clear_screen);
+            terminal.puts(InfoCmp.Capability.cursor_home);
+            terminal.flush();
+
+            // Force a complete repaint when entering alt screen
+            invalidate();
+        });
+    }
+
+    @Override
+    public void exitAltScreen() {
+        if (!altScreen()) {
+            return;
+        }
+        isInAltScreen = false;
+
+        onRendererThread(() -> {
+            terminal.puts(InfoCmp.Capability.exit_ca_mode);
+            terminal.flush();
+
+            // Force a repaint when exiting alt screen
+            invalidate();
+        });
+    }
+
+    @Override
+    public void enableBracketedPaste() {
+        writeSequence("\033[?2004h");
+    }
+
+    @Override
+    public void disableBracketedPaste() {
+        writeSequence("\033[?2004l");
+    }
+
+    private void writeSequence(String sequence) {
+        if (terminal.getType().startsWith(Terminal.TYPE_DUMB)) {
+            return;
+        }
+
+        onRendererThread(() -> {
+            terminal.writer().print(sequence);
+            terminal.writer().flush();
+        });
+    }
+
+    @Override
+    public void notifyModelChanged() {
+        this.needsRender = true;
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        onRendererThread(() -> {
+            if (width == this.width && height == this.height) {
+                return;
+            }
+            this.width = width;
+            this.height = height;
+            if (cellDiff != null) {
+                cellDiff.resize(width, height);
+            }
+            invalidate();
+        });
+    }
+
+    @Override
+    public void repaint() {
+        onRendererThread(this::invalidate);
+    }
+
+    /**
+     * Forgets what is on screen, so the next frame is painted in full, and schedules it.
+     * Runs on the renderer thread, after any flush that was already pending.
+     */
+    private void invalidate() {
+        lastFrame.clear();
+        if (cellDiff != null) {
+            cellDiff.invalidate();
+        }
+        needsRender = true;
+        scheduleFlush();
+    }
+}
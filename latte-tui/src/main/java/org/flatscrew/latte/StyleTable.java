@@ -0,0 +1,96 @@
+package org.flatscrew.latte;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Interns SGR sequences so that cells can refer to their style by a plain int.
+ * Id 0 always stands for the terminal's default style. Looking up an already known
+ * sequence does not allocate.
+ */
+final class StyleTable {
+
+    static final int DEFAULT_STYLE = 0;
+
+    private String[] sequences = new String[16];
+    private byte[][] encoded = new byte[16][];
+    private int[] slots = new int[64];
+    private int size;
+
+    StyleTable() {
+        clear();
+    }
+
+    int intern(CharSequence sequence) {
+        if (sequence.isEmpty()) {
+            return DEFAULT_STYLE;
+        }
+
+        int mask = slots.length - 1;
+        for (int slot = hash(sequence) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                int id = add(sequence.toString());
+                slots[slot] = id + 1;
+                if (size * 2 > slots.length) {
+                    rehash();
+                }
+                return id;
+            }
+            if (sequences[entry - 1].contentEquals(sequence)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    String sequence(int id) {
+        return sequences[id];
+    }
+
+    byte[] encoded(int id) {
+        return encoded[id];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(sequences, null);
+        Arrays.fill(encoded, null);
+        Arrays.fill(slots, 0);
+        sequences[DEFAULT_STYLE] = "";
+        encoded[DEFAULT_STYLE] = new byte[0];
+        size = 1;
+    }
+
+    private int add(String sequence) {
+        if (size == sequences.length) {
+            sequences = Arrays.copyOf(sequences, size * 2);
+            encoded = Arrays.copyOf(encoded, size * 2);
+        }
+        sequences[size] = sequence;
+        encoded[size] = sequence.getBytes(StandardCharsets.UTF_8);
+        return size++;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 1; id < size; id++) {
+            int slot = hash(sequences[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int hash(CharSequence sequence) {
+        int h = 0;
+        for (int i = 0; i < sequence.length(); i++) {
+            h = 31 * h + sequence.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+}
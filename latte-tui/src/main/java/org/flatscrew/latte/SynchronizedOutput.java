@@ -0,0 +1,70 @@
+package org.flatscrew.latte;
+
+import org.jline.terminal.Terminal;
+import org.jline.utils.NonBlockingReader;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Synchronized output (DEC private mode 2026). Frames wrapped in the begin/end sequences
+ * are presented by the terminal at once, so it never paints half of a frame.
+ */
+final class SynchronizedOutput {
+
+    static final byte[] BEGIN = OutputBuffer.ascii("\033[?2026h");
+    static final byte[] END = OutputBuffer.ascii("\033[?2026l");
+
+    // DECRQM asks for the state of the mode, primary device attributes are answered
+    // by practically every terminal, so the second reply tells us the first isn't coming
+    private static final String QUERY = "\033[?2026$p\033[c";
+    private static final Pattern MODE_REPORT = Pattern.compile("\033\\[\\?2026;(\\d)\\$y");
+    private static final Pattern DEVICE_ATTRIBUTES = Pattern.compile("\033\\[\\?[\\d;]*c");
+
+    private SynchronizedOutput() {
+    }
+
+    /**
+     * Asks the terminal whether it supports mode 2026. Has to be called while the terminal is in
+     * raw mode and before anything else starts reading the input.
+     */
+    static boolean isSupported(Terminal terminal, Duration timeout) {
+        if (terminal.getType().startsWith(Terminal.TYPE_DUMB)) {
+            return false;
+        }
+
+        terminal.writer().print(QUERY);
+        terminal.writer().flush();
+
+        NonBlockingReader reader = terminal.reader();
+        StringBuilder reply = new StringBuilder();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            // read until the device attributes arrive, so that no part of the replies is left
+            // behind to be mistaken for keyboard input
+            while (!DEVICE_ATTRIBUTES.matcher(reply).find()) {
+                long remaining = (deadline - System.nanoTime()) / 1_000_000;
+                if (remaining <= 0) {
+                    break;
+                }
+                int c = reader.read(remaining);
+                if (c < 0) {
+                    break;
+                }
+                reply.append((char) c);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+
+        Matcher mode = MODE_REPORT.matcher(reply);
+        if (!mode.find()) {
+            return false;
+        }
+        // 1 - set, 2 - reset; 0 means unknown mode and 3/4 that it can't be changed
+        int state = mode.group(1).charAt(0) - '0';
+        return state == 1 || state == 2;
+    }
+}
@@ -0,0 +1,21 @@
+package org.flatscrew.latte;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.flatscrew.latte.Update")
+@Label("Update")
+@Category("Latte")
+@Description("Messages applied to the model in one go")
+final class UpdateEvent extends Event {
+
+    @Label("Messages")
+    int messages;
+
+    @Label("Message Type")
+    @Description("Type of the first message")
+    String messageType;
+}
@@ -0,0 +1,17 @@
+package org.flatscrew.latte;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.flatscrew.latte.View")
+@Label("View")
+@Category("Latte")
+@Description("The model building its view")
+final class ViewEvent extends Event {
+
+    @Label("Model Type")
+    String modelType;
+}
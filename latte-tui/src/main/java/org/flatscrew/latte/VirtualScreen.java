@@ -0,0 +1,505 @@
+package org.flatscrew.latte;
+
+import org.flatscrew.latte.cream.TextWidth;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A terminal screen kept in memory. Interprets what a program writes to its terminal (text,
+ * cursor movement, erasing, SGR styles and the alternate screen) into a grid of cells, so tests
+ * can check what a real terminal would show. Sequences it doesn't know are skipped.
+ */
+public final class VirtualScreen {
+
+    private static final char ESC = '\033';
+    private static final char BEL = '\007';
+    private static final int TAB_WIDTH = 8;
+
+    private int width;
+    private int height;
+    private Grid main;
+    private Grid alternate;
+    private Grid grid;
+    private int row;
+    private int column;
+    private int savedRow;
+    private int savedColumn;
+    private boolean cursorVisible = true;
+    private String style = "";
+    // the start of an escape sequence whose end hasn't been fed yet
+    private final StringBuilder pending = new StringBuilder();
+
+    public VirtualScreen(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.main = new Grid(width, height);
+        this.alternate = new Grid(width, height);
+        this.grid = main;
+    }
+
+    /**
+     * Interprets output written to the terminal. Escape sequences may be split between calls.
+     */
+    public void feed(CharSequence output) {
+        CharSequence text = output;
+        if (!pending.isEmpty()) {
+            text = pending.append(output).toString();
+            pending.setLength(0);
+        }
+
+        int index = 0;
+        int end = text.length();
+        while (index < end) {
+            char c = text.charAt(index);
+            if (c == ESC) {
+                int sequenceEnd = sequenceEnd(text, index, end);
+                if (sequenceEnd < 0) {
+                    pending.append(text, index, end);
+                    return;
+                }
+                escape(text, index, sequenceEnd);
+                index = sequenceEnd;
+            } else if (Character.isHighSurrogate(c) && index + 1 == end) {
+                pending.append(c);
+                return;
+            } else {
+                int codePoint = Character.codePointAt(text, index);
+                index += Character.charCount(codePoint);
+                if (codePoint < 0x20 || codePoint == 0x7F) {
+                    control(codePoint);
+                } else {
+                    print(codePoint);
+                }
+            }
+        }
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int cursorRow() {
+        return row;
+    }
+
+    public int cursorColumn() {
+        return Math.min(column, width - 1);
+    }
+
+    public boolean isCursorVisible() {
+        return cursorVisible;
+    }
+
+    public boolean isAltScreen() {
+        return grid == alternate;
+    }
+
+    /**
+     * The text shown in a row, without trailing blanks.
+     */
+    public String line(int row) {
+        StringBuilder line = new StringBuilder(width);
+        String[] cells = grid.text[row];
+        for (String cell : cells) {
+            if (cell == null) {
+                line.append(' ');
+            } else {
+                // the second half of a wide character is empty
+                line.append(cell);
+            }
+        }
+        int end = line.length();
+        while (end > 0 && line.charAt(end - 1) == ' ') {
+            end--;
+        }
+        line.setLength(end);
+        return line.toString();
+    }
+
+    public List<String> lines() {
+        List<String> lines = new ArrayList<>(height);
+        for (int i = 0; i < height; i++) {
+            lines.add(line(i));
+        }
+        return lines;
+    }
+
+    /**
+     * The SGR parameters a cell was written with, as written since the last reset, e.g.
+     * {@code "38;5;204"}. Empty for cells in the default style.
+     */
+    public String style(int row, int column) {
+        String cellStyle = grid.styles[row][column];
+        return cellStyle != null ? cellStyle : "";
+    }
+
+    public void resize(int width, int height) {
+        this.main = main.resize(width, height);
+        Grid resizedAlternate = alternate.resize(width, height);
+        this.grid = grid == alternate ? resizedAlternate : main;
+        this.alternate = resizedAlternate;
+        this.width = width;
+        this.height = height;
+        this.row = Math.min(row, height - 1);
+        this.column = Math.min(column, width - 1);
+    }
+
+    /**
+     * The screen's lines, without the empty ones at the bottom.
+     */
+    @Override
+    public String toString() {
+        List<String> lines = lines();
+        int end = lines.size();
+        while (end > 0 && lines.get(end - 1).isEmpty()) {
+            end--;
+        }
+        return String.join("\n", lines.subList(0, end));
+    }
+
+    private void control(int c) {
+        switch (c) {
+            case '\r' -> column = 0;
+            case '\n', 0x0B, 0x0C -> lineFeed();
+            case '\b' -> column = Math.max(Math.min(column, width - 1) - 1, 0);
+            case '\t' -> column = Math.min((column / TAB_WIDTH + 1) * TAB_WIDTH, width - 1);
+            default -> {
+                // bell and other controls don't change the screen
+            }
+        }
+    }
+
+    private void print(int codePoint) {
+        int codePointWidth = TextWidth.codePointWidth(codePoint);
+        String[] cells = grid.text[row];
+        if (codePointWidth == 0) {
+            // combining marks and joiners belong to the character before them
+            int previous = column - 1;
+            if (previous > 0 && "".equals(cells[previous])) {
+                previous--;
+            }
+            if (previous >= 0 && cells[previous] != null) {
+                cells[previous] = cells[previous] + Character.toString(codePoint);
+            }
+            return;
+        }
+
+        if (column + codePointWidth > width) {
+            // the previous character filled the line, this one goes to the next
+            column = 0;
+            lineFeed();
+            cells = grid.text[row];
+        }
+        // don't leave halves of wide characters behind
+        if ("".equals(cells[column]) && column > 0) {
+            cells[column - 1] = null;
+        }
+        int after = column + codePointWidth;
+        if (after < width && "".equals(cells[after])) {
+            cells[after] = null;
+        }
+
+        String[] styles = grid.styles[row];
+        cells[column] = Character.toString(codePoint);
+        styles[column] = style;
+        if (codePointWidth == 2) {
+            cells[column + 1] = "";
+            styles[column + 1] = style;
+        }
+        column = after;
+    }
+
+    private void lineFeed() {
+        if (row == height - 1) {
+            grid.scrollUp(0, height, 1);
+        } else {
+            row++;
+        }
+    }
+
+    /**
+     * Returns the index right after the escape sequence starting at {@code index}, or -1 if it
+     * hasn't been fed completely.
+     */
+    private static int sequenceEnd(CharSequence text, int index, int end) {
+        if (index + 1 >= end) {
+            return -1;
+        }
+        char kind = text.charAt(index + 1);
+        if (kind == '[') {
+            for (int i = index + 2; i < end; i++) {
+                char c = text.charAt(i);
+                if (c >= 0x40 && c <= 0x7E) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+        if (kind == ']') {
+            for (int i = index + 2; i < end; i++) {
+                char c = text.charAt(i);
+                if (c == BEL) {
+                    return i + 1;
+                }
+                if (c == ESC && i + 1 < end && text.charAt(i + 1) == '\\') {
+                    return i + 2;
+                }
+            }
+            return -1;
+        }
+        if (kind == '(' || kind == ')') {
+            // character set designation takes one more character
+            return index + 2 < end ? index + 3 : -1;
+        }
+        return index + 2;
+    }
+
+    private void escape(CharSequence text, int start, int end) {
+        switch (text.charAt(start + 1)) {
+            case '[' -> csi(text.subSequence(start + 2, end - 1).toString(), text.charAt(end - 1));
+            case '7' -> saveCursor();
+            case '8' -> restoreCursor();
+            case 'D' -> lineFeed();
+            case 'E' -> {
+                column = 0;
+                lineFeed();
+            }
+            case 'M' -> {
+                if (row == 0) {
+                    grid.scrollDown(0, height, 1);
+                } else {
+                    row--;
+                }
+            }
+            default -> {
+                // OSC and everything else doesn't change the screen
+            }
+        }
+    }
+
+    private void csi(String parameters, char command) {
+        if (parameters.startsWith("?")) {
+            if (command == 'h' || command == 'l') {
+                for (String mode : parameters.substring(1).split(";")) {
+                    privateMode(mode, command == 'h');
+                }
+            }
+            return;
+        }
+        if (!parameters.isEmpty() && (parameters.charAt(0) < '0' || parameters.charAt(0) > ';')) {
+            // other private sequences, e.g. queries
+            return;
+        }
+
+        int[] values = parameters(parameters);
+        int first = values.length > 0 ? values[0] : 0;
+        int count = Math.max(first, 1);
+        switch (command) {
+            case 'm' -> sgr(parameters);
+            case 'A' -> row = Math.max(row - count, 0);
+            case 'B' -> row = Math.min(row + count, height - 1);
+            case 'C' -> column = Math.min(column + count, width - 1);
+            case 'D' -> column = Math.max(Math.min(column, width - 1) - count, 0);
+            case 'E' -> {
+                row = Math.min(row + count, height - 1);
+                column = 0;
+            }
+            case 'F' -> {
+                row = Math.max(row - count, 0);
+                column = 0;
+            }
+            case 'G', '`' -> column = clamp(count - 1, width);
+            case 'd' -> row = clamp(count - 1, height);
+            case 'H', 'f' -> {
+                row = clamp(count - 1, height);
+                column = clamp(values.length > 1 ? Math.max(values[1], 1) - 1 : 0, width);
+            }
+            case 'J' -> eraseScreen(first);
+            case 'K' -> eraseLine(first);
+            case 'X' -> grid.erase(row, Math.min(column, width - 1), row + 1, Math.min(column + count, width));
+            case 'P' -> grid.deleteCells(row, Math.min(column, width - 1), count);
+            case '@' -> grid.insertCells(row, Math.min(column, width - 1), count);
+            case 'L' -> grid.scrollDown(row, height, count);
+            case 'M' -> grid.scrollUp(row, height, count);
+            case 'S' -> grid.scrollUp(0, height, count);
+            case 'T' -> grid.scrollDown(0, height, count);
+            case 's' -> saveCursor();
+            case 'u' -> restoreCursor();
+            default -> {
+                // window operations, device queries and the like
+            }
+        }
+    }
+
+    private void privateMode(String mode, boolean enable) {
+        switch (mode) {
+            case "25" -> cursorVisible = enable;
+            case "1049" -> {
+                if (enable) {
+                    saveCursor();
+                    alternate.erase(0, 0, height, width);
+                    grid = alternate;
+                } else {
+                    grid = main;
+                    restoreCursor();
+                }
+            }
+            case "47", "1047" -> grid = enable ? alternate : main;
+            default -> {
+                // bracketed paste, synchronized output and others don't change the screen
+            }
+        }
+    }
+
+    private void sgr(String parameters) {
+        String[] values = parameters.isEmpty() ? new String[]{"0"} : parameters.split(";", -1);
+        StringBuilder next = new StringBuilder(style);
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i];
+            int length = 1;
+            if ((value.equals("38") || value.equals("48") || value.equals("58")) && i + 1 < values.length) {
+                // extended colors take their arguments along, which may well be zeros
+                length = values[i + 1].equals("5") ? 3 : values[i + 1].equals("2") ? 5 : 1;
+                length = Math.min(length, values.length - i);
+            }
+            if (length == 1 && (value.isEmpty() || Integer.parseInt(value) == 0)) {
+                next.setLength(0);
+                continue;
+            }
+            for (int j = i; j < i + length; j++) {
+                if (!next.isEmpty()) {
+                    next.append(';');
+                }
+                next.append(values[j]);
+            }
+            i += length - 1;
+        }
+        style = next.toString();
+    }
+
+    private void eraseScreen(int mode) {
+        int cursorColumn = Math.min(column, width - 1);
+        switch (mode) {
+            case 0 -> {
+                grid.erase(row, cursorColumn, row + 1, width);
+                grid.erase(row + 1, 0, height, width);
+            }
+            case 1 -> {
+                grid.erase(0, 0, row, width);
+                grid.erase(row, 0, row + 1, cursorColumn + 1);
+            }
+            default -> grid.erase(0, 0, height, width);
+        }
+    }
+
+    private void eraseLine(int mode) {
+        int cursorColumn = Math.min(column, width - 1);
+        switch (mode) {
+            case 0 -> grid.erase(row, cursorColumn, row + 1, width);
+            case 1 -> grid.erase(row, 0, row + 1, cursorColumn + 1);
+            default -> grid.erase(row, 0, row + 1, width);
+        }
+    }
+
+    private void saveCursor() {
+        savedRow = row;
+        savedColumn = column;
+    }
+
+    private void restoreCursor() {
+        row = Math.min(savedRow, height - 1);
+        column = Math.min(savedColumn, width - 1);
+    }
+
+    private static int[] parameters(String parameters) {
+        if (parameters.isEmpty()) {
+            return new int[0];
+        }
+        String[] values = parameters.split(";", -1);
+        int[] numbers = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i];
+            int digits = 0;
+            while (digits < value.length() && Character.isDigit(value.charAt(digits))) {
+                digits++;
+            }
+            numbers[i] = digits > 0 ? Integer.parseInt(value.substring(0, digits)) : 0;
+        }
+        return numbers;
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(value, size - 1));
+    }
+
+    /**
+     * Cells by row, {@code null} for blank cells and the empty string for the second half of
+     * a wide character.
+     */
+    private static final class Grid {
+
+        private final String[][] text;
+        private final String[][] styles;
+        private final int width;
+
+        private Grid(int width, int height) {
+            this.text = new String[height][width];
+            this.styles = new String[height][width];
+            this.width = width;
+        }
+
+        private Grid resize(int width, int height) {
+            Grid resized = new Grid(width, height);
+            for (int row = 0; row < Math.min(height, text.length); row++) {
+                int columns = Math.min(width, this.width);
+                System.arraycopy(text[row], 0, resized.text[row], 0, columns);
+                System.arraycopy(styles[row], 0, resized.styles[row], 0, columns);
+            }
+            return resized;
+        }
+
+        private void erase(int fromRow, int fromColumn, int toRow, int toColumn) {
+            for (int row = fromRow; row < toRow; row++) {
+                for (int column = fromColumn; column < toColumn; column++) {
+                    text[row][column] = null;
+                    styles[row][column] = null;
+                }
+            }
+        }
+
+        private void scrollUp(int top, int bottom, int lines) {
+            for (int row = top; row < bottom; row++) {
+                int source = row + lines;
+                text[row] = source < bottom ? text[source] : new String[width];
+                styles[row] = source < bottom ? styles[source] : new String[width];
+            }
+        }
+
+        private void scrollDown(int top, int bottom, int lines) {
+            for (int row = bottom - 1; row >= top; row--) {
+                int source = row - lines;
+                text[row] = source >= top ? text[source] : new String[width];
+                styles[row] = source >= top ? styles[source] : new String[width];
+            }
+        }
+
+        private void deleteCells(int row, int column, int count) {
+            int moved = Math.max(width - column - count, 0);
+            System.arraycopy(text[row], column + (width - column - moved), text[row], column, moved);
+            System.arraycopy(styles[row], column + (width - column - moved), styles[row], column, moved);
+            erase(row, column + moved, row + 1, width);
+        }
+
+        private void insertCells(int row, int column, int count) {
+            int moved = Math.max(width - column - count, 0);
+            System.arraycopy(text[row], column, text[row], width - moved, moved);
+            System.arraycopy(styles[row], column, styles[row], width - moved, moved);
+            erase(row, column, row + 1, width - moved);
+        }
+    }
+}
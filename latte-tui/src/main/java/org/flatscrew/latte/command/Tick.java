@@ -0,0 +1,28 @@
+package org.flatscrew.latte.command;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Message;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+public class Tick {
+
+    /**
+     * Produces a message once the given duration has elapsed, counting from the moment the command is dispatched.
+     */
+    public static Command tick(Duration duration, Function<LocalDateTime, Message> fn) {
+        return new TickCommand(duration, false, fn);
+    }
+
+    /**
+     * Produces a message at the next wall-clock boundary of the given interval, e.g. at the top of the next
+     * full second for {@code Duration.ofSeconds(1)}. A boundary less than half an interval away is skipped,
+     * so a tick re-armed from update never fires twice for the same one. Like {@link #tick}, it fires only
+     * once and has to be re-armed from update.
+     */
+    public static Command every(Duration interval, Function<LocalDateTime, Message> fn) {
+        return new TickCommand(interval, true, fn);
+    }
+}
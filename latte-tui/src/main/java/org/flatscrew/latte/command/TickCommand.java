@@ -0,0 +1,47 @@
+package org.flatscrew.latte.command;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Message;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * A command that only waits for time to pass. The program hands it to its shared timer instead of
+ * parking a command thread, so pending ticks cost no threads at all.
+ */
+public record TickCommand(
+        Duration interval,
+        boolean alignToClock,
+        Function<LocalDateTime, Message> fn) implements Command {
+
+    public Duration delay() {
+        if (!alignToClock) {
+            return interval;
+        }
+        long intervalMillis = Math.max(interval.toMillis(), 1);
+        long delay = intervalMillis - System.currentTimeMillis() % intervalMillis;
+        // the timer doesn't go by the wall clock, a tick can fire just before its boundary and would
+        // then be re-armed for that same boundary, so one that close is skipped
+        if (delay < (intervalMillis + 1) / 2) {
+            delay += intervalMillis;
+        }
+        return Duration.ofMillis(delay);
+    }
+
+    public Message fire() {
+        return fn.apply(LocalDateTime.now());
+    }
+
+    @Override
+    public Message execute() {
+        try {
+            Thread.sleep(delay());
+            return fire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.flatscrew.latte.cream;
+import org.jline.utils.AttributedStyle;
+import org.jline.utils.Colors;
+
+interface ColorApplyStrategy {
+    AttributedStyle applyForForeground(AttributedStyle attributedStyle);
+    AttributedStyle applyForBackground(AttributedStyle attributedStyle);
+
+    /**
+     * Appends the SGR parameters selecting this color, without the surrounding escape sequence.
+     */
+    void appendForeground(StringBuilder sgr);
+    void appendBackground(StringBuilder sgr);
+}
+
+record ColorCodeApplyStrategy(int colorCode) implements ColorApplyStrategy {
+
+    @Override
+    public AttributedStyle applyForForeground(AttributedStyle attributedStyle) {
+        return attributedStyle.foreground(colorCode);
+    }
+
+    @Override
+    public AttributedStyle applyForBackground(AttributedStyle attributedStyle) {
+        return attributedStyle.background(colorCode);
+    }
+
+    @Override
+    public void appendForeground(StringBuilder sgr) {
+        append(sgr, 30, 90, 38);
+    }
+
+    @Override
+    public void appendBackground(StringBuilder sgr) {
+        append(sgr, 40, 100, 48);
+    }
+
+    // same codes jline emits: the 16 basic colors have their own parameters, the rest go through the palette
+    private void append(StringBuilder sgr, int basic, int bright, int extended) {
+        if (colorCode < 8) {
+            sgr.append(basic + colorCode);
+        } else if (colorCode < 16) {
+            sgr.append(bright + colorCode - 8);
+        } else {
+            sgr.append(extended).append(";5;").append(colorCode);
+        }
+    }
+}
+
+record RGBAApplyStrategy(int r, int g, int b) implements ColorApplyStrategy {
+
+    @Override
+    public AttributedStyle applyForForeground(AttributedStyle attributedStyle) {
+        return attributedStyle.foreground(r, g, b);
+    }
+
+    @Override
+    public AttributedStyle applyForBackground(AttributedStyle attributedStyle) {
+        return attributedStyle.background(r, g, b);
+    }
+
+    @Override
+    public void appendForeground(StringBuilder sgr) {
+        palette().appendForeground(sgr);
+    }
+
+    @Override
+    public void appendBackground(StringBuilder sgr) {
+        palette().appendBackground(sgr);
+    }
+
+    // rendered through the 256 color palette, like AttributedString.toAnsi() does
+    private ColorCodeApplyStrategy palette() {
+        return new ColorCodeApplyStrategy(Colors.roundRgbColor(r, g, b, 256));
+    }
+}
+
+public class Color {
+
+    private final ColorApplyStrategy applyStrategy;
+
+    public Color(int colorCode) {
+        this.applyStrategy = new ColorCodeApplyStrategy(colorCode);
+    }
+
+    public Color(int r, int g, int b) {
+        this.applyStrategy = new RGBAApplyStrategy(r, g, b);
+    }
+
+    public AttributedStyle applyAsBackground(AttributedStyle style) {
+        return applyStrategy.applyForBackground(style);
+    }
+
+    public AttributedStyle applyAsForeground(AttributedStyle style) {
+        return applyStrategy.applyForForeground(style);
+    }
+
+    void appendForeground(StringBuilder sgr) {
+        applyStrategy.appendForeground(sgr);
+    }
+
+    void appendBackground(StringBuilder sgr) {
+        applyStrategy.appendBackground(sgr);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Color color && applyStrategy.equals(color.applyStrategy);
+    }
+
+    @Override
+    public int hashCode() {
+        return applyStrategy.hashCode();
+    }
+}
@@ -0,0 +1,36 @@
+package org.flatscrew.latte.cream;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A bounded LRU map of rendered strings. Views may be built outside of the event loop, so access
+ * is synchronized.
+ */
+final class RenderCache {
+
+    private final int maxEntries;
+    private final Map<String, String> entries;
+
+    RenderCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache must hold at least one entry");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > RenderCache.this.maxEntries;
+            }
+        };
+    }
+
+    int maxEntries() {
+        return maxEntries;
+    }
+
+    synchronized String computeIfAbsent(String text, Function<String, String> render) {
+        return entries.computeIfAbsent(text, render);
+    }
+}
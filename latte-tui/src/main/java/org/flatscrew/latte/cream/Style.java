@@ -0,0 +1,115 @@
+package org.flatscrew.latte.cream;
+
+import java.util.Objects;
+
+/**
+ * An immutable text style. The SGR sequences switching the style on and off are built once,
+ * when the style is created, so rendering is plain string concatenation. Styles are meant to be
+ * created once and kept in constants or fields; {@link #foreground(Color)} and
+ * {@link #background(Color)} return new instances.
+ */
+public final class Style {
+
+    private static final String RESET = "\033[0m";
+
+    private final Color foreground;
+    private final Color background;
+    private final RenderCache cache;
+    private final String prefix;
+    private final String suffix;
+
+    public Style() {
+        this(null, null, null);
+    }
+
+    private Style(Color foreground, Color background, RenderCache cache) {
+        this.foreground = foreground;
+        this.background = background;
+        this.cache = cache;
+
+        StringBuilder sgr = new StringBuilder();
+        if (foreground != null) {
+            foreground.appendForeground(sgr);
+        }
+        if (background != null) {
+            if (!sgr.isEmpty()) {
+                sgr.append(';');
+            }
+            background.appendBackground(sgr);
+        }
+        this.prefix = sgr.isEmpty() ? "" : "\033[" + sgr + "m";
+        this.suffix = sgr.isEmpty() ? "" : RESET;
+    }
+
+    public Style foreground(Color color) {
+        return new Style(color, background, freshCache());
+    }
+
+    public Style background(Color color) {
+        return new Style(foreground, color, freshCache());
+    }
+
+    /**
+     * Returns this style with a bounded cache of rendered strings, evicting the least recently
+     * used ones. Worth it for styles rendering the same few texts every frame, like spinner
+     * frames or table headers.
+     */
+    public Style cached(int maxEntries) {
+        return new Style(foreground, background, new RenderCache(maxEntries));
+    }
+
+    /**
+     * The sequence switching this style on, empty for the default style.
+     */
+    public String prefix() {
+        return prefix;
+    }
+
+    /**
+     * The sequence switching this style off, empty for the default style.
+     */
+    public String suffix() {
+        return suffix;
+    }
+
+    public String render(String... strings) {
+        String text = strings.length == 1 ? strings[0] : String.join(" ", strings);
+        if (cache != null) {
+            return cache.computeIfAbsent(text, this::renderUncached);
+        }
+        return renderUncached(text);
+    }
+
+    /**
+     * Appends the styled text to the given builder, for views that are assembled piece by piece.
+     */
+    public StringBuilder render(StringBuilder out, CharSequence text) {
+        if (!text.isEmpty()) {
+            out.append(prefix).append(text).append(suffix);
+        }
+        return out;
+    }
+
+    private String renderUncached(String text) {
+        if (text.isEmpty() || prefix.isEmpty()) {
+            return text;
+        }
+        return render(new StringBuilder(prefix.length() + text.length() + suffix.length()), text).toString();
+    }
+
+    private RenderCache freshCache() {
+        return cache != null ? new RenderCache(cache.maxEntries()) : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Style style
+                && Objects.equals(foreground, style.foreground)
+                && Objects.equals(background, style.background);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(foreground, background);
+    }
+}
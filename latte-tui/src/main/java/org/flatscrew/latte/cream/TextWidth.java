@@ -0,0 +1,180 @@
+package org.flatscrew.latte.cream;
+
+import org.jline.utils.WCWidth;
+
+/**
+ * Measures how many terminal columns a line of text takes. Escape sequences take no columns,
+ * East Asian wide characters and emoji take two, combining marks take none, and grapheme clusters
+ * (emoji joined with ZWJ, flags made of two regional indicators, emoji presentation selectors)
+ * are counted as the single glyph the terminal draws. Printable ASCII is measured without any
+ * table lookups, and apart from filling the lookup table the first time a script shows up,
+ * nothing here allocates.
+ */
+public final class TextWidth {
+
+    private static final char ESC = '\033';
+    private static final char BEL = '\007';
+    private static final int ZERO_WIDTH_JOINER = 0x200D;
+    private static final int EMOJI_PRESENTATION = 0xFE0F;
+    private static final int REGIONAL_INDICATOR_FIRST = 0x1F1E6;
+    private static final int REGIONAL_INDICATOR_LAST = 0x1F1FF;
+
+    private static final int BMP_SIZE = 0x10000;
+    private static final int BLOCK_BITS = 8;
+
+    // widths of the basic multilingual plane, looking them up is a lot cheaper than the binary
+    // searches wcwidth does; filled in blocks of 256 code points as text using them shows up
+    private static final Block[] BMP_BLOCKS = new Block[BMP_SIZE >> BLOCK_BITS];
+
+    // the array is final, so a block seen by another thread is seen filled
+    private record Block(byte[] widths) {
+    }
+
+    private TextWidth() {
+    }
+
+    /**
+     * Width of a single code point: 0, 1 or 2. Control characters have no width.
+     */
+    public static int codePointWidth(int codePoint) {
+        if (codePoint >= 0x20 && codePoint < 0x7F) {
+            return 1;
+        }
+        if (codePoint < BMP_SIZE) {
+            Block block = BMP_BLOCKS[codePoint >> BLOCK_BITS];
+            if (block == null) {
+                block = fillBlock(codePoint >> BLOCK_BITS);
+            }
+            return block.widths()[codePoint & ((1 << BLOCK_BITS) - 1)];
+        }
+        return Math.max(WCWidth.wcwidth(codePoint), 0);
+    }
+
+    private static Block fillBlock(int index) {
+        byte[] widths = new byte[1 << BLOCK_BITS];
+        int first = index << BLOCK_BITS;
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = (byte) Math.max(WCWidth.wcwidth(first + i), 0);
+        }
+        // threads racing here compute the same block, whichever is stored wins
+        Block block = new Block(widths);
+        BMP_BLOCKS[index] = block;
+        return block;
+    }
+
+    public static int width(CharSequence text) {
+        return width(text, 0, text.length());
+    }
+
+    /**
+     * Width of a single line of text between {@code start} and {@code end}.
+     */
+    public static int width(CharSequence text, int start, int end) {
+        return measure(text, start, end, Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * Finds where to cut the text so that it fits into {@code maxWidth} columns. Returns the index
+     * the visible part ends at; a wide character that would stick out is left out entirely.
+     */
+    public static int truncate(CharSequence text, int start, int end, int maxWidth) {
+        return measure(text, start, end, maxWidth, true);
+    }
+
+    /**
+     * Returns the index right after the escape sequence starting at {@code index}. CSI sequences
+     * end with their final byte, OSC sequences (hyperlinks, titles) with BEL or ST.
+     */
+    public static int skipEscapeSequence(CharSequence text, int index, int end) {
+        if (index + 1 >= end) {
+            return end;
+        }
+        char kind = text.charAt(index + 1);
+        int cursor = index + 2;
+        if (kind == '[') {
+            while (cursor < end) {
+                char c = text.charAt(cursor++);
+                if (c >= 0x40 && c <= 0x7E) {
+                    return cursor;
+                }
+            }
+            return end;
+        }
+        if (kind == ']') {
+            while (cursor < end) {
+                char c = text.charAt(cursor++);
+                if (c == BEL) {
+                    return cursor;
+                }
+                if (c == ESC && cursor < end && text.charAt(cursor) == '\\') {
+                    return cursor + 1;
+                }
+            }
+            return end;
+        }
+        return cursor;
+    }
+
+    private static int measure(CharSequence text, int start, int end, int maxWidth, boolean returnIndex) {
+        int width = 0;
+        int index = start;
+
+        // ASCII fast path, one column per char
+        while (index < end) {
+            char c = text.charAt(index);
+            if (c < 0x20 || c >= 0x7F || (index + 1 < end && text.charAt(index + 1) >= 0x300)) {
+                break;
+            }
+            if (width == maxWidth) {
+                return index;
+            }
+            width++;
+            index++;
+        }
+
+        int previousWidth = 0;
+        boolean joined = false;
+        boolean pendingRegionalIndicator = false;
+        while (index < end) {
+            char c = text.charAt(index);
+            if (c == ESC) {
+                index = skipEscapeSequence(text, index, end);
+                continue;
+            }
+
+            int codePoint = Character.codePointAt(text, index);
+            int next = index + Character.charCount(codePoint);
+            int codePointWidth;
+            if (joined) {
+                // joined into the previous glyph
+                codePointWidth = 0;
+                joined = false;
+            } else if (codePoint == ZERO_WIDTH_JOINER) {
+                codePointWidth = 0;
+                joined = previousWidth > 0;
+            } else if (codePoint == EMOJI_PRESENTATION) {
+                // turns a narrow symbol into a wide emoji
+                codePointWidth = previousWidth == 1 ? 1 : 0;
+            } else if (codePoint >= REGIONAL_INDICATOR_FIRST && codePoint <= REGIONAL_INDICATOR_LAST) {
+                // two regional indicators make a single flag
+                codePointWidth = pendingRegionalIndicator ? 0 : codePointWidth(codePoint);
+                pendingRegionalIndicator = !pendingRegionalIndicator;
+            } else {
+                codePointWidth = codePointWidth(codePoint);
+                pendingRegionalIndicator = false;
+            }
+
+            if (width + codePointWidth > maxWidth) {
+                return index;
+            }
+            width += codePointWidth;
+            if (codePoint == EMOJI_PRESENTATION && codePointWidth > 0) {
+                previousWidth = 2;
+            } else if (codePointWidth > 0) {
+                previousWidth = codePointWidth;
+            }
+            index = next;
+        }
+        return returnIndex ? index : width;
+    }
+}
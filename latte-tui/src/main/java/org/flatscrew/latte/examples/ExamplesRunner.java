@@ -4,7 +4,13 @@ import org.flatscrew.latte.*;
 import org.flatscrew.latte.examples.altscreentoggle.AltScreenToggleExample;
 import org.flatscrew.latte.examples.counter.CounterExample;
 import org.flatscrew.latte.examples.fullscreen.FullscreenExample;
+import org.flatscrew.latte.examples.list.ListExample;
+import org.flatscrew.latte.examples.pager.PagerExample;
+import org.flatscrew.latte.examples.progress.ProgressExample;
 import org.flatscrew.latte.examples.result.ResultExample;
+import org.flatscrew.latte.examples.spinner.SpinnersExample;
+import org.flatscrew.latte.examples.table.TableExample;
+import org.flatscrew.latte.examples.textarea.TextAreaExample;
 import org.flatscrew.latte.message.KeyPress;
 
 import java.util.List;
@@ -27,11 +33,20 @@ public class ExamplesRunner implements Model {
     @Override
     public UpdateResult<? extends Model> update(Message msg) {
         if (msg instanceof KeyPress keyPress) {
-            return switch (keyPress.key()) {
-                case 'k', 'K', 65 -> new UpdateResult<>(this.moveUp(), null);
-                case 'j', 'J', 66 -> new UpdateResult<>(this.moveDown(), null);
-                case 13 -> new UpdateResult<>(this.makeChoice(), null);
-                case 'q', 'Q' -> new UpdateResult<>(this, Quit::new);
+            return switch (keyPress.type()) {
+                case UP -> new UpdateResult<>(this.moveUp(), null);
+                case DOWN -> new UpdateResult<>(this.moveDown(), null);
+                case ENTER -> {
+                    Model choice = this.makeChoice();
+                    // the example takes over, starting whatever it runs on its own
+                    yield new UpdateResult<>(choice, choice == this ? null : choice.init());
+                }
+                case RUNE -> switch (keyPress.key()) {
+                    case 'k', 'K' -> new UpdateResult<>(this.moveUp(), null);
+                    case 'j', 'J' -> new UpdateResult<>(this.moveDown(), null);
+                    case 'q', 'Q' -> new UpdateResult<>(this, Quit::new);
+                    default -> new UpdateResult<>(this, null);
+                };
                 default -> new UpdateResult<>(this, null);
             };
         }
@@ -88,7 +103,13 @@ public class ExamplesRunner implements Model {
                 new CounterExample(),
                 new ResultExample(),
                 new AltScreenToggleExample(),
-                new FullscreenExample(5)
+                new FullscreenExample(5),
+                new ListExample(),
+                new TableExample(),
+                new PagerExample(),
+                new TextAreaExample(),
+                new SpinnersExample(),
+                new ProgressExample()
         ))).run();
     }
 }
\ No newline at end of file
@@ -28,11 +28,16 @@ public class CounterExample implements Model {
     @Override
     public UpdateResult<? extends Model> update(Message msg) {
         if (msg instanceof KeyPress keyPress) {
-            return switch (keyPress.key()) {
-                case 'k', 'K', 65 -> new UpdateResult<>(this, () -> CounterMsg.INCREMENT);
-                case 'j', 'J', 66 -> new UpdateResult<>(this, () -> CounterMsg.DECREMENT);
-                case 'd', 'D' -> new UpdateResult<>(this, () -> CounterMsg.INCREMENT_LATER);
-                case 'q', 'Q' -> new UpdateResult<>(this, Quit::new);
+            return switch (keyPress.type()) {
+                case UP -> new UpdateResult<>(this, () -> CounterMsg.INCREMENT);
+                case DOWN -> new UpdateResult<>(this, () -> CounterMsg.DECREMENT);
+                case RUNE -> switch (keyPress.key()) {
+                    case 'k', 'K' -> new UpdateResult<>(this, () -> CounterMsg.INCREMENT);
+                    case 'j', 'J' -> new UpdateResult<>(this, () -> CounterMsg.DECREMENT);
+                    case 'd', 'D' -> new UpdateResult<>(this, () -> CounterMsg.INCREMENT_LATER);
+                    case 'q', 'Q' -> new UpdateResult<>(this, Quit::new);
+                    default -> new UpdateResult<>(this, null);
+                };
                 default -> new UpdateResult<>(this, null);
             };
         } else if (msg == CounterMsg.INCREMENT) {
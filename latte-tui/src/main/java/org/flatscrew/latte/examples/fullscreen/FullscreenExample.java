@@ -24,7 +24,7 @@ public class FullscreenExample implements Model {
 
     @Override
     public Command init() {
-        return Tick.tick(Duration.ofSeconds(1), TickMessage::new);
+        return Tick.every(Duration.ofSeconds(1), TickMessage::new);
     }
 
     @Override
@@ -34,7 +34,7 @@ public class FullscreenExample implements Model {
             if (seconds <= 0) {
                 return UpdateResult.from(this, Quit::new);
             }
-            return UpdateResult.from(this, Tick.tick(Duration.ofSeconds(1), TickMessage::new));
+            return UpdateResult.from(this, Tick.every(Duration.ofSeconds(1), TickMessage::new));
         }
         return UpdateResult.from(this, null);
     }
@@ -0,0 +1,79 @@
+package org.flatscrew.latte.examples.list;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Frame;
+import org.flatscrew.latte.FrameModel;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.Program;
+import org.flatscrew.latte.Quit;
+import org.flatscrew.latte.UpdateResult;
+import org.flatscrew.latte.message.KeyPress;
+import org.flatscrew.latte.message.KeyType;
+import org.flatscrew.latte.message.WindowSizeMessage;
+import org.flatscrew.latte.spice.list.VirtualList;
+
+public class ListExample implements FrameModel {
+
+    private static final int ITEMS = 1_000_000;
+    // header and footer lines around the list
+    private static final int CHROME_LINES = 4;
+
+    private final VirtualList<String> list = new VirtualList<>(() -> ITEMS, index -> "Item #%,d".formatted(index + 1));
+    private String choice;
+
+    @Override
+    public Command init() {
+        return null;
+    }
+
+    @Override
+    public UpdateResult<? extends FrameModel> update(Message msg) {
+        if (msg instanceof WindowSizeMessage windowSize) {
+            list.height(windowSize.height() - CHROME_LINES);
+            return UpdateResult.from(this);
+        }
+        if (msg instanceof KeyPress keyPress) {
+            if (keyPress.type() == KeyType.ENTER) {
+                choice = list.selectedItem();
+                return new UpdateResult<>(this, Quit::new);
+            }
+            if (keyPress.type() == KeyType.RUNE) {
+                switch (keyPress.key()) {
+                    case 'q', 'Q' -> {
+                        return new UpdateResult<>(this, Quit::new);
+                    }
+                    case 'm' -> {
+                        list.jumpTo(ITEMS / 2);
+                        return UpdateResult.from(this);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        list.update(msg);
+        return UpdateResult.from(this);
+    }
+
+    @Override
+    public void view(Frame frame) {
+        frame.add("Pick one of a million items:");
+        frame.add("");
+        list.view(frame);
+        frame.add("");
+        frame.add("(j/k move, pgup/pgdn page, g/G first/last, m middle, q quit)");
+    }
+
+    public String getChoice() {
+        return choice;
+    }
+
+    public static void main(String[] args) {
+        ListExample listModel = new ListExample();
+        new Program(listModel).run();
+
+        if (listModel.getChoice() != null) {
+            System.out.printf("\n---\nYou chose: %s!\n", listModel.getChoice());
+        }
+    }
+}
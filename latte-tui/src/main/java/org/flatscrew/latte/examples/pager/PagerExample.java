@@ -0,0 +1,117 @@
+package org.flatscrew.latte.examples.pager;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Frame;
+import org.flatscrew.latte.FrameModel;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.Program;
+import org.flatscrew.latte.Quit;
+import org.flatscrew.latte.UpdateResult;
+import org.flatscrew.latte.message.KeyPress;
+import org.flatscrew.latte.message.KeyType;
+import org.flatscrew.latte.message.WindowSizeMessage;
+import org.flatscrew.latte.spice.pager.Pager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+public class PagerExample implements FrameModel {
+
+    private static final int GENERATED_LINES = 200_000;
+    // status and help lines
+    private static final int CHROME_LINES = 2;
+
+    private final Pager pager;
+    private final Path generatedLog;
+
+    /**
+     * Pages a generated log that keeps growing.
+     */
+    public PagerExample() {
+        this.generatedLog = generateLog();
+        this.pager = new Pager(generatedLog).follow(true);
+    }
+
+    public PagerExample(Path path) {
+        this.generatedLog = null;
+        this.pager = new Pager(path).follow(true);
+    }
+
+    private static Path generateLog() {
+        try {
+            Path log = Files.createTempFile("latte-pager", ".log");
+            log.toFile().deleteOnExit();
+            try (BufferedWriter writer = Files.newBufferedWriter(log, StandardCharsets.UTF_8)) {
+                for (int line = 1; line <= GENERATED_LINES; line++) {
+                    writer.write("%s INFO  request %d served in %d ms%n".formatted(LocalDateTime.now(), line, line % 97));
+                }
+            }
+            return log;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void keepAppending() {
+        Thread writer = new Thread(() -> {
+            try {
+                for (int line = 1; !Thread.currentThread().isInterrupted(); line++) {
+                    Thread.sleep(200);
+                    Files.writeString(generatedLog, "%s WARN  appended line %d%n".formatted(LocalDateTime.now(), line),
+                            StandardOpenOption.APPEND);
+                }
+            } catch (IOException | InterruptedException e) {
+                // the example is over
+            }
+        }, "pager-example-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public Command init() {
+        if (generatedLog != null) {
+            keepAppending();
+        }
+        return pager.init();
+    }
+
+    @Override
+    public UpdateResult<? extends FrameModel> update(Message msg) {
+        if (msg instanceof WindowSizeMessage windowSize) {
+            pager.height(windowSize.height() - CHROME_LINES).width(windowSize.width());
+            pager.end();
+            return UpdateResult.from(this);
+        }
+        if (msg instanceof KeyPress keyPress && keyPress.type() == KeyType.RUNE
+                && (keyPress.key() == 'q' || keyPress.key() == 'Q')) {
+            pager.close();
+            return new UpdateResult<>(this, Quit::new);
+        }
+        return UpdateResult.from(this, pager.update(msg).command());
+    }
+
+    @Override
+    public void view(Frame frame) {
+        pager.view(frame);
+        long topLine = pager.topLine();
+        long lineCount = pager.lineCount();
+        frame.add("line %s of %s, %,d bytes%s".formatted(
+                topLine < 0 ? "?" : "%,d".formatted(topLine + 1),
+                lineCount < 0 ? "?" : "%,d".formatted(lineCount),
+                pager.size(),
+                pager.isAtEnd() ? ", following" : ""));
+        frame.add("(j/k scroll, space/b page, g/G start/end, q quit)");
+    }
+
+    public static void main(String[] args) {
+        PagerExample example = args.length > 0 ? new PagerExample(Path.of(args[0])) : new PagerExample();
+        new Program(example).withAltScreen().run();
+    }
+}
@@ -0,0 +1,82 @@
+package org.flatscrew.latte.examples.progress;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.Model;
+import org.flatscrew.latte.Program;
+import org.flatscrew.latte.Quit;
+import org.flatscrew.latte.UpdateResult;
+import org.flatscrew.latte.command.Batch;
+import org.flatscrew.latte.command.Tick;
+import org.flatscrew.latte.cream.Color;
+import org.flatscrew.latte.cream.Style;
+import org.flatscrew.latte.message.KeyPress;
+import org.flatscrew.latte.message.KeyType;
+import org.flatscrew.latte.spice.animation.AnimationClock;
+import org.flatscrew.latte.spice.animation.Spring;
+import org.flatscrew.latte.spice.animation.SpringAnimator;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+record ProgressMessage(LocalDateTime time) implements Message {
+}
+
+public class ProgressExample implements Model {
+
+    private static final int FPS = 60;
+    private static final int WIDTH = 40;
+    // eighths of a cell, for bars that grow smoothly rather than a cell at a time
+    private static final String[] PARTIAL_CELLS = {"", "▏", "▎", "▍", "▌", "▋", "▊", "▉"};
+    private static final Style BAR_STYLE = new Style().foreground(new Color(205));
+    private static final Style TRACK_STYLE = new Style().foreground(new Color(238));
+
+    private final AnimationClock clock = new AnimationClock(Duration.ofSeconds(1).dividedBy(FPS));
+    private final SpringAnimator bar = new SpringAnimator(clock, Spring.of(FPS, 6.0, 1.0), 0);
+    private double progress;
+
+    @Override
+    public Command init() {
+        return nextProgress();
+    }
+
+    private Command nextProgress() {
+        return Tick.tick(Duration.ofMillis(ThreadLocalRandom.current().nextInt(300, 1200)), ProgressMessage::new);
+    }
+
+    @Override
+    public UpdateResult<? extends Model> update(Message msg) {
+        if (msg instanceof KeyPress keyPress && keyPress.type() == KeyType.RUNE
+                && (keyPress.key() == 'q' || keyPress.key() == 'Q')) {
+            return new UpdateResult<>(this, Quit::new);
+        }
+        if (msg instanceof ProgressMessage) {
+            progress = Math.min(progress + ThreadLocalRandom.current().nextDouble(0.05, 0.25), 1);
+            Command animate = bar.target(progress);
+            Command next = progress < 1 ? nextProgress() : null;
+            return UpdateResult.from(this, animate != null && next != null ? Batch.batch(animate, next)
+                    : animate != null ? animate : next);
+        }
+        return UpdateResult.from(this, clock.update(msg));
+    }
+
+    @Override
+    public String view() {
+        double value = Math.max(0, Math.min(bar.value(), 1));
+        int eighths = (int) Math.round(value * WIDTH * 8);
+        String filled = "█".repeat(eighths / 8) + PARTIAL_CELLS[eighths % 8];
+        int empty = WIDTH - eighths / 8 - (eighths % 8 > 0 ? 1 : 0);
+
+        StringBuilder view = new StringBuilder("\n  ");
+        BAR_STYLE.render(view, filled);
+        TRACK_STYLE.render(view, "░".repeat(empty));
+        view.append(" %3d%%".formatted(Math.round(value * 100)));
+        view.append(bar.isResting() && progress >= 1 ? "\n\n  Done! Press q to quit.\n" : "\n\n  Press q to quit.\n");
+        return view.toString();
+    }
+
+    public static void main(String[] args) {
+        new Program(new ProgressExample()).run();
+    }
+}
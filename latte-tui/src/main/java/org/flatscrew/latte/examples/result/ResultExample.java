@@ -37,11 +37,16 @@ public class ResultExample implements Model  {
     @Override
     public UpdateResult<? extends Model> update(Message msg) {
         if (msg instanceof KeyPress keyPress) {
-            return switch (keyPress.key()) {
-                case 'k', 'K', 65 -> new UpdateResult<>(this.moveUp(), null);
-                case 'j', 'J', 66 -> new UpdateResult<>(this.moveDown(), null);
-                case 13 -> new UpdateResult<>(this.makeChoice(), Quit::new);
-                case 'q', 'Q' -> new UpdateResult<>(this, Quit::new);
+            return switch (keyPress.type()) {
+                case UP -> new UpdateResult<>(this.moveUp(), null);
+                case DOWN -> new UpdateResult<>(this.moveDown(), null);
+                case ENTER -> new UpdateResult<>(this.makeChoice(), Quit::new);
+                case RUNE -> switch (keyPress.key()) {
+                    case 'k', 'K' -> new UpdateResult<>(this.moveUp(), null);
+                    case 'j', 'J' -> new UpdateResult<>(this.moveDown(), null);
+                    case 'q', 'Q' -> new UpdateResult<>(this, Quit::new);
+                    default -> new UpdateResult<>(this, null);
+                };
                 default -> new UpdateResult<>(this, null);
             };
         }
@@ -0,0 +1,83 @@
+package org.flatscrew.latte.examples.spinner;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Frame;
+import org.flatscrew.latte.FrameModel;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.Program;
+import org.flatscrew.latte.Quit;
+import org.flatscrew.latte.UpdateResult;
+import org.flatscrew.latte.command.Batch;
+import org.flatscrew.latte.cream.Color;
+import org.flatscrew.latte.cream.Style;
+import org.flatscrew.latte.message.KeyPress;
+import org.flatscrew.latte.message.KeyType;
+import org.flatscrew.latte.spice.animation.AnimationClock;
+import org.flatscrew.latte.spice.spinner.Spinner;
+import org.flatscrew.latte.spice.spinner.SpinnerType;
+
+import java.time.Duration;
+
+public class SpinnersExample implements FrameModel {
+
+    private static final int ROWS = 10;
+    private static final int COLUMNS = 20;
+    private static final Style[] STYLES = {
+            new Style().foreground(new Color(205)),
+            new Style().foreground(new Color(69)),
+            new Style().foreground(new Color(42))
+    };
+
+    private final AnimationClock clock = new AnimationClock(Duration.ofMillis(50));
+    private final Spinner[][] spinners = new Spinner[ROWS][COLUMNS];
+
+    public SpinnersExample() {
+        SpinnerType[] types = SpinnerType.values();
+        for (int row = 0; row < ROWS; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                spinners[row][column] = new Spinner(types[row % types.length], clock)
+                        .style(STYLES[column % STYLES.length]);
+            }
+        }
+    }
+
+    @Override
+    public Command init() {
+        // every spinner joins the clock, the first one starts it
+        Command[] commands = new Command[ROWS * COLUMNS];
+        for (int row = 0; row < ROWS; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                commands[row * COLUMNS + column] = spinners[row][column].init();
+            }
+        }
+        return Batch.batch(commands);
+    }
+
+    @Override
+    public UpdateResult<? extends FrameModel> update(Message msg) {
+        if (msg instanceof KeyPress keyPress && keyPress.type() == KeyType.RUNE
+                && (keyPress.key() == 'q' || keyPress.key() == 'Q')) {
+            return new UpdateResult<>(this, Quit::new);
+        }
+        // one tick moves all 200 spinners
+        return UpdateResult.from(this, clock.update(msg));
+    }
+
+    @Override
+    public void view(Frame frame) {
+        frame.add("");
+        for (Spinner[] row : spinners) {
+            StringBuilder line = new StringBuilder("  ");
+            for (Spinner spinner : row) {
+                line.append(spinner.view()).append(' ');
+            }
+            frame.add(line);
+        }
+        frame.add("");
+        frame.add("  %d spinners on one clock...press q to quit".formatted(ROWS * COLUMNS));
+    }
+
+    public static void main(String[] args) {
+        new Program(new SpinnersExample()).run();
+    }
+}
@@ -0,0 +1,118 @@
+package org.flatscrew.latte.examples.table;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Frame;
+import org.flatscrew.latte.FrameModel;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.Program;
+import org.flatscrew.latte.Quit;
+import org.flatscrew.latte.UpdateResult;
+import org.flatscrew.latte.command.Batch;
+import org.flatscrew.latte.command.Tick;
+import org.flatscrew.latte.cream.Color;
+import org.flatscrew.latte.cream.Style;
+import org.flatscrew.latte.message.KeyPress;
+import org.flatscrew.latte.message.KeyType;
+import org.flatscrew.latte.message.WindowSizeMessage;
+import org.flatscrew.latte.spice.table.Column;
+import org.flatscrew.latte.spice.table.Table;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+record RowsMessage(LocalDateTime time) implements Message {
+}
+
+public class TableExample implements FrameModel {
+
+    private static final Duration INTERVAL = Duration.ofMillis(100);
+    // 10k rows a second
+    private static final int ROWS_PER_TICK = 1000;
+    private static final String[] HOSTS = {"alpha", "bravo", "charlie", "delta", "echo", "foxtrot"};
+    private static final String[] STATUSES = {"ok", "ok", "ok", "slow", "timeout"};
+    // summary, table header and the two footer lines
+    private static final int CHROME_LINES = 4;
+
+    private final Table table = new Table(List.of(
+            Column.of("#", 9).comparing(Comparator.comparingLong(Long::parseLong)),
+            Column.of("Host"),
+            Column.of("Latency ms").comparing(Comparator.comparingInt(Integer::parseInt)),
+            Column.of("Status")))
+            .headerStyle(new Style().foreground(new Color(205)))
+            .selectedStyle(new Style().background(new Color(57)));
+    private long nextRow = 1;
+    private int sortColumn = -1;
+    private boolean descending;
+
+    @Override
+    public Command init() {
+        return nextBatch();
+    }
+
+    private Command nextBatch() {
+        return Tick.tick(INTERVAL, RowsMessage::new);
+    }
+
+    @Override
+    public UpdateResult<? extends FrameModel> update(Message msg) {
+        Command command = null;
+        if (msg instanceof RowsMessage) {
+            List<String[]> rows = new ArrayList<>(ROWS_PER_TICK);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < ROWS_PER_TICK; i++) {
+                rows.add(new String[]{
+                        Long.toString(nextRow++),
+                        HOSTS[random.nextInt(HOSTS.length)],
+                        Integer.toString(random.nextInt(2000)),
+                        STATUSES[random.nextInt(STATUSES.length)]
+                });
+            }
+            table.appendAll(rows);
+            command = nextBatch();
+        } else if (msg instanceof WindowSizeMessage windowSize) {
+            table.height(windowSize.height() - CHROME_LINES);
+        } else if (msg instanceof KeyPress keyPress && keyPress.type() == KeyType.RUNE) {
+            switch (keyPress.key()) {
+                case 'q', 'Q' -> {
+                    return new UpdateResult<>(this, Quit::new);
+                }
+                case '1', '2', '3', '4' -> {
+                    int column = keyPress.key() - '1';
+                    descending = column == sortColumn && !descending;
+                    sortColumn = column;
+                    return UpdateResult.from(this, table.sortBy(column, descending));
+                }
+                case 'u' -> {
+                    sortColumn = -1;
+                    table.unsorted();
+                    return UpdateResult.from(this);
+                }
+                default -> {
+                }
+            }
+        }
+
+        UpdateResult<? extends FrameModel> tableResult = table.update(msg);
+        if (tableResult.command() != null) {
+            command = command != null ? Batch.batch(command, tableResult.command()) : tableResult.command();
+        }
+        return UpdateResult.from(this, command);
+    }
+
+    @Override
+    public void view(Frame frame) {
+        String order = sortColumn < 0 ? "arrival" : "column %d %s".formatted(sortColumn + 1, descending ? "desc" : "asc");
+        frame.add("%,d rows, sorted by %s".formatted(table.rows(), order));
+        table.view(frame);
+        frame.add("");
+        frame.add("(j/k move, pgup/pgdn page, g/G first/last, 1-4 sort, u unsort, q quit)");
+    }
+
+    public static void main(String[] args) {
+        new Program(new TableExample()).withAltScreen().run();
+    }
+}
@@ -0,0 +1,65 @@
+package org.flatscrew.latte.examples.textarea;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Frame;
+import org.flatscrew.latte.FrameModel;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.Program;
+import org.flatscrew.latte.Quit;
+import org.flatscrew.latte.UpdateResult;
+import org.flatscrew.latte.message.KeyPress;
+import org.flatscrew.latte.message.KeyType;
+import org.flatscrew.latte.message.WindowSizeMessage;
+import org.flatscrew.latte.spice.textarea.TextArea;
+import org.flatscrew.latte.spice.textinput.TextInput;
+
+public class TextAreaExample implements FrameModel {
+
+    private final TextInput title = new TextInput().prompt("Title: ").placeholder("What's it about?").width(40);
+    private final TextArea body = new TextArea().width(60).height(10).blur();
+
+    @Override
+    public Command init() {
+        return null;
+    }
+
+    @Override
+    public UpdateResult<? extends FrameModel> update(Message msg) {
+        if (msg instanceof WindowSizeMessage windowSize) {
+            body.width(Math.min(windowSize.width(), 80)).height(Math.max(windowSize.height() - 6, 3));
+            return UpdateResult.from(this);
+        }
+        if (msg instanceof KeyPress keyPress) {
+            if (keyPress.type() == KeyType.ESCAPE) {
+                return new UpdateResult<>(this, Quit::new);
+            }
+            if (keyPress.type() == KeyType.TAB) {
+                if (title.isFocused()) {
+                    title.blur();
+                    body.focus();
+                } else {
+                    body.blur();
+                    title.focus();
+                }
+                return UpdateResult.from(this);
+            }
+        }
+        title.update(msg);
+        body.update(msg);
+        return UpdateResult.from(this);
+    }
+
+    @Override
+    public void view(Frame frame) {
+        frame.add(title.view());
+        frame.add("");
+        body.view(frame);
+        frame.add("");
+        frame.add("%,d characters, %,d lines".formatted(body.length(), body.lineCount()));
+        frame.add("(tab switch fields, esc quit)");
+    }
+
+    public static void main(String[] args) {
+        new Program(new TextAreaExample()).withAltScreen().run();
+    }
+}
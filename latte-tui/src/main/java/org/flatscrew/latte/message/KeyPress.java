@@ -0,0 +1,19 @@
+package org.flatscrew.latte.message;
+
+import org.flatscrew.latte.Message;
+
+/**
+ * A single key press. For {@link KeyType#RUNE} keys, {@code key} holds the typed code point, for
+ * {@link KeyType#CONTROL} keys and for enter, tab, backspace and escape it holds the raw control code.
+ * Keys without a character of their own (arrows, function keys...) have a key of 0.
+ */
+public record KeyPress(KeyType type, int key, boolean alt, boolean ctrl, boolean shift) implements Message {
+
+    public KeyPress(int key) {
+        this(KeyType.RUNE, key, false, false, false);
+    }
+
+    public KeyPress(KeyType type) {
+        this(type, 0, false, false, false);
+    }
+}
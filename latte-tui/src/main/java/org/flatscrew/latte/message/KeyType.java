@@ -0,0 +1,32 @@
+package org.flatscrew.latte.message;
+
+public enum KeyType {
+    RUNE,
+    CONTROL,
+    ENTER,
+    TAB,
+    BACKSPACE,
+    ESCAPE,
+    UP,
+    DOWN,
+    RIGHT,
+    LEFT,
+    HOME,
+    END,
+    PAGE_UP,
+    PAGE_DOWN,
+    INSERT,
+    DELETE,
+    F1,
+    F2,
+    F3,
+    F4,
+    F5,
+    F6,
+    F7,
+    F8,
+    F9,
+    F10,
+    F11,
+    F12
+}
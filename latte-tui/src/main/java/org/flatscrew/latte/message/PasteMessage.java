@@ -2,4 +2,5 @@ package org.flatscrew.latte.message;
 
 import org.flatscrew.latte.Message;
 
-public record KeyPress(int key) implements Message {}
+public record PasteMessage(String text) implements Message {
+}
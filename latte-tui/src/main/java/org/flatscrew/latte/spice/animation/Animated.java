@@ -0,0 +1,13 @@
+package org.flatscrew.latte.spice.animation;
+
+/**
+ * A component moved along by an {@link AnimationClock}.
+ */
+public interface Animated {
+
+    /**
+     * Advances the animation to the given frame. Returns whether it wants more frames; once
+     * nothing registered with a clock does, the clock stops ticking until it's woken up.
+     */
+    boolean animate(AnimationFrame frame);
+}
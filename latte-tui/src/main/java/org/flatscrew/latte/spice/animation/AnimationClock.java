@@ -0,0 +1,123 @@
+package org.flatscrew.latte.spice.animation;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.command.Tick;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives any number of animated components with a single tick. Instead of every component
+ * scheduling a tick of its own, which puts a message per component and frame through the event
+ * loop, the clock ticks once per interval, aligned to the wall clock, and moves all of them to the
+ * same frame. When none of them wants more frames the clock stops, and {@link #wake()} starts it
+ * again.
+ * <pre>
+ * AnimationClock clock = new AnimationClock(Duration.ofMillis(50));
+ * Spinner spinner = new Spinner(SpinnerType.DOT, clock);
+ *
+ * public Command init() {
+ *     // the spinner joins the clock and wakes it
+ *     return spinner.init();
+ * }
+ *
+ * public UpdateResult&lt;? extends Model&gt; update(Message msg) {
+ *     return UpdateResult.from(this, clock.update(msg));
+ * }
+ * </pre>
+ * Clocks and their components are meant to be used from the event loop only.
+ */
+public final class AnimationClock {
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private final int id = NEXT_ID.incrementAndGet();
+    private final Duration interval;
+    private final List<Animated> components = new ArrayList<>();
+    private boolean ticking;
+    // set when the clock starts again after having stopped, the time in between isn't a frame
+    private boolean resumed;
+    private long startNanos = -1;
+    private long lastNanos;
+    private long frameNumber;
+
+    public AnimationClock(Duration interval) {
+        if (interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("Interval has to be positive");
+        }
+        this.interval = interval;
+    }
+
+    public Duration interval() {
+        return interval;
+    }
+
+    public <A extends Animated> A register(A component) {
+        components.add(component);
+        return component;
+    }
+
+    public void unregister(Animated component) {
+        components.remove(component);
+    }
+
+    /**
+     * Starts ticking. Returns the command scheduling the first tick.
+     */
+    public Command init() {
+        return wake();
+    }
+
+    /**
+     * Starts ticking again after the clock has stopped, e.g. because a component got something
+     * new to animate. Returns {@code null} if the clock is ticking already.
+     */
+    public Command wake() {
+        if (ticking) {
+            return null;
+        }
+        resumed = true;
+        return schedule();
+    }
+
+    private Command schedule() {
+        ticking = true;
+        return Tick.every(interval, time -> new ClockTickMessage(time, id));
+    }
+
+    public boolean isTicking() {
+        return ticking;
+    }
+
+    /**
+     * Moves the registered components to the next frame if the message is this clock's tick.
+     * Returns the command scheduling the next tick, if any.
+     */
+    public Command update(Message msg) {
+        if (!(msg instanceof ClockTickMessage tick) || tick.id() != id) {
+            return null;
+        }
+        ticking = false;
+
+        long now = System.nanoTime();
+        if (startNanos < 0) {
+            startNanos = now;
+        }
+        if (resumed) {
+            resumed = false;
+            lastNanos = now - interval.toNanos();
+        }
+        AnimationFrame frame = new AnimationFrame(frameNumber++, now - startNanos, now - lastNanos);
+        lastNanos = now;
+
+        boolean animating = false;
+        for (int i = 0; i < components.size(); i++) {
+            // every component gets the frame, whether or not one before it still animates
+            animating |= components.get(i).animate(frame);
+        }
+        return animating ? schedule() : null;
+    }
+}
@@ -0,0 +1,11 @@
+package org.flatscrew.latte.spice.animation;
+
+/**
+ * A tick of an {@link AnimationClock}, the same for every component it animates.
+ *
+ * @param number frames since the clock started
+ * @param elapsedNanos time since the clock started
+ * @param deltaNanos time since the previous frame
+ */
+public record AnimationFrame(long number, long elapsedNanos, long deltaNanos) {
+}
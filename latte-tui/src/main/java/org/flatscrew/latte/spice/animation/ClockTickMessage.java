@@ -0,0 +1,14 @@
+package org.flatscrew.latte.spice.animation;
+
+import org.flatscrew.latte.Message;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tells an animation clock to move its components to the next frame. Pass it on to the clock's
+ * update.
+ */
+public record ClockTickMessage(
+        LocalDateTime time,
+        int id) implements Message {
+}
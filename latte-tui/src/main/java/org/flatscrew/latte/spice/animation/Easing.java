@@ -0,0 +1,34 @@
+package org.flatscrew.latte.spice.animation;
+
+/**
+ * Maps how far an animation has got in time, from 0 to 1, to how far it has moved.
+ */
+@FunctionalInterface
+public interface Easing {
+
+    Easing LINEAR = t -> t;
+    Easing IN_QUAD = t -> t * t;
+    Easing OUT_QUAD = t -> t * (2 - t);
+    Easing IN_OUT_QUAD = t -> t < 0.5 ? 2 * t * t : -1 + (4 - 2 * t) * t;
+    Easing IN_CUBIC = t -> t * t * t;
+    Easing OUT_CUBIC = t -> {
+        double u = t - 1;
+        return u * u * u + 1;
+    };
+    Easing IN_OUT_CUBIC = t -> {
+        if (t < 0.5) {
+            return 4 * t * t * t;
+        }
+        double u = 2 * t - 2;
+        return u * u * u / 2 + 1;
+    };
+    Easing IN_OUT_SINE = t -> (1 - Math.cos(Math.PI * t)) / 2;
+    /** Overshoots a little and settles back. */
+    Easing OUT_BACK = t -> {
+        double overshoot = 1.70158;
+        double u = t - 1;
+        return u * u * ((overshoot + 1) * u + overshoot) + 1;
+    };
+
+    double ease(double t);
+}
@@ -0,0 +1,128 @@
+package org.flatscrew.latte.spice.animation;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A damped spring, solved in closed form for a fixed timestep. The coefficients moving a position
+ * and velocity one step closer to the target are worked out once, when the spring is made, so a
+ * step is four multiplications; springs with the same timestep, frequency and damping are shared.
+ * <p>
+ * The angular frequency sets how fast the spring is, the damping ratio how it settles: below 1 it
+ * overshoots and oscillates, at 1 it arrives as fast as possible without overshooting, above 1 it
+ * creeps towards the target.
+ */
+public final class Spring {
+
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_SHARED = 256;
+    private static final Map<Key, Spring> SPRINGS = new ConcurrentHashMap<>();
+
+    private record Key(long timestepNanos, double angularFrequency, double dampingRatio) {
+    }
+
+    private final long timestepNanos;
+    private final double positionFromPosition;
+    private final double positionFromVelocity;
+    private final double velocityFromPosition;
+    private final double velocityFromVelocity;
+
+    /**
+     * A spring stepping {@code fps} times a second.
+     */
+    public static Spring of(int fps, double angularFrequency, double dampingRatio) {
+        if (fps <= 0) {
+            throw new IllegalArgumentException("Frame rate has to be positive");
+        }
+        return of(Duration.ofSeconds(1).dividedBy(fps), angularFrequency, dampingRatio);
+    }
+
+    public static Spring of(Duration timestep, double angularFrequency, double dampingRatio) {
+        if (timestep.isZero() || timestep.isNegative()) {
+            throw new IllegalArgumentException("Timestep has to be positive");
+        }
+        Key key = new Key(timestep.toNanos(), Math.max(angularFrequency, 0), Math.max(dampingRatio, 0));
+        Spring spring = SPRINGS.get(key);
+        if (spring != null) {
+            return spring;
+        }
+        spring = new Spring(key.timestepNanos(), key.angularFrequency(), key.dampingRatio());
+        if (SPRINGS.size() < MAX_SHARED) {
+            Spring existing = SPRINGS.putIfAbsent(key, spring);
+            return existing != null ? existing : spring;
+        }
+        return spring;
+    }
+
+    private Spring(long timestepNanos, double angularFrequency, double dampingRatio) {
+        this.timestepNanos = timestepNanos;
+        double dt = timestepNanos / 1e9;
+
+        if (angularFrequency < EPSILON) {
+            // no force at all, nothing moves
+            positionFromPosition = 1;
+            positionFromVelocity = 0;
+            velocityFromPosition = 0;
+            velocityFromVelocity = 1;
+        } else if (dampingRatio > 1 + EPSILON) {
+            // overdamped
+            double za = -angularFrequency * dampingRatio;
+            double zb = angularFrequency * Math.sqrt(dampingRatio * dampingRatio - 1);
+            double z1 = za - zb;
+            double z2 = za + zb;
+            double e1 = Math.exp(z1 * dt);
+            double e2 = Math.exp(z2 * dt);
+            double invTwoZb = 1 / (2 * zb);
+            double e1OverTwoZb = e1 * invTwoZb;
+            double e2OverTwoZb = e2 * invTwoZb;
+            double z1e1OverTwoZb = z1 * e1OverTwoZb;
+            double z2e2OverTwoZb = z2 * e2OverTwoZb;
+            positionFromPosition = e1OverTwoZb * z2 - z2e2OverTwoZb + e2;
+            positionFromVelocity = -e1OverTwoZb + e2OverTwoZb;
+            velocityFromPosition = (z1e1OverTwoZb - z2e2OverTwoZb + e2) * z2;
+            velocityFromVelocity = -z1e1OverTwoZb + z2e2OverTwoZb;
+        } else if (dampingRatio < 1 - EPSILON) {
+            // underdamped
+            double omegaZeta = angularFrequency * dampingRatio;
+            double alpha = angularFrequency * Math.sqrt(1 - dampingRatio * dampingRatio);
+            double exp = Math.exp(-omegaZeta * dt);
+            double cos = Math.cos(alpha * dt);
+            double sin = Math.sin(alpha * dt);
+            double expSin = exp * sin;
+            double expCos = exp * cos;
+            double expOmegaZetaSinOverAlpha = exp * omegaZeta * sin / alpha;
+            positionFromPosition = expCos + expOmegaZetaSinOverAlpha;
+            positionFromVelocity = expSin / alpha;
+            velocityFromPosition = -expSin * alpha - omegaZeta * expOmegaZetaSinOverAlpha;
+            velocityFromVelocity = expCos - expOmegaZetaSinOverAlpha;
+        } else {
+            // critically damped
+            double exp = Math.exp(-angularFrequency * dt);
+            double timeExp = dt * exp;
+            double timeExpFrequency = timeExp * angularFrequency;
+            positionFromPosition = timeExpFrequency + exp;
+            positionFromVelocity = timeExp;
+            velocityFromPosition = -angularFrequency * timeExpFrequency;
+            velocityFromVelocity = -timeExpFrequency + exp;
+        }
+    }
+
+    public long timestepNanos() {
+        return timestepNanos;
+    }
+
+    /**
+     * Position after one step.
+     */
+    public double position(double position, double velocity, double target) {
+        return (position - target) * positionFromPosition + velocity * positionFromVelocity + target;
+    }
+
+    /**
+     * Velocity after one step.
+     */
+    public double velocity(double position, double velocity, double target) {
+        return (position - target) * velocityFromPosition + velocity * velocityFromVelocity;
+    }
+}
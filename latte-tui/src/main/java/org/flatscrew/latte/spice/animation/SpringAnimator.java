@@ -0,0 +1,122 @@
+package org.flatscrew.latte.spice.animation;
+
+import org.flatscrew.latte.Command;
+
+/**
+ * Moves a value towards a target on a {@link Spring}. The spring is stepped on its own fixed
+ * timestep, however irregularly the clock's frames arrive, so the motion is the same at any frame
+ * rate. Once the value has come to rest at the target the animator stops asking for frames;
+ * setting a new target wakes the clock again. The animator joins its clock with the first target
+ * it's given and leaves it in {@link #stop()}.
+ */
+public final class SpringAnimator implements Animated {
+
+    // after a stall, e.g. a long garbage collection, catch up this far at most instead of all the way
+    private static final int MAX_STEPS_PER_FRAME = 8;
+    private static final double DEFAULT_PRECISION = 0.001;
+
+    private final AnimationClock clock;
+    private final Spring spring;
+    private double precision = DEFAULT_PRECISION;
+    private double position;
+    private double velocity;
+    private double target;
+    private long pendingNanos;
+    private boolean resting = true;
+    private boolean registered;
+
+    public SpringAnimator(AnimationClock clock, Spring spring, double initial) {
+        this.clock = clock;
+        this.spring = spring;
+        this.position = initial;
+        this.target = initial;
+    }
+
+    /**
+     * Sets how close to the target, with how little velocity left, the value counts as resting.
+     */
+    public SpringAnimator precision(double precision) {
+        this.precision = precision;
+        return this;
+    }
+
+    public double value() {
+        return position;
+    }
+
+    public double target() {
+        return target;
+    }
+
+    public double velocity() {
+        return velocity;
+    }
+
+    public boolean isResting() {
+        return resting;
+    }
+
+    /**
+     * Sets a new target. Returns the command waking the clock, if it has stopped.
+     */
+    public Command target(double target) {
+        this.target = target;
+        if (resting && Math.abs(position - target) <= precision) {
+            position = target;
+            return null;
+        }
+        if (resting) {
+            resting = false;
+            pendingNanos = 0;
+        }
+        if (!registered) {
+            clock.register(this);
+            registered = true;
+        }
+        return clock.wake();
+    }
+
+    /**
+     * Takes the animator off its clock, leaving the value where it is. Setting a target puts it
+     * back.
+     */
+    public void stop() {
+        if (registered) {
+            clock.unregister(this);
+            registered = false;
+        }
+        velocity = 0;
+        resting = true;
+    }
+
+    /**
+     * Puts the value at the given position and at rest, without animating.
+     */
+    public void jumpTo(double value) {
+        position = value;
+        target = value;
+        velocity = 0;
+        resting = true;
+    }
+
+    @Override
+    public boolean animate(AnimationFrame frame) {
+        if (resting) {
+            return false;
+        }
+        long stepNanos = spring.timestepNanos();
+        pendingNanos += frame.deltaNanos();
+        long steps = pendingNanos / stepNanos;
+        pendingNanos -= steps * stepNanos;
+        for (long step = Math.min(steps, MAX_STEPS_PER_FRAME); step > 0; step--) {
+            double newPosition = spring.position(position, velocity, target);
+            velocity = spring.velocity(position, velocity, target);
+            position = newPosition;
+            if (Math.abs(position - target) <= precision && Math.abs(velocity) <= precision) {
+                jumpTo(target);
+                return false;
+            }
+        }
+        return true;
+    }
+}
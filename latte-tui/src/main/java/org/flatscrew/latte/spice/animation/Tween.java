@@ -0,0 +1,96 @@
+package org.flatscrew.latte.spice.animation;
+
+import org.flatscrew.latte.Command;
+
+import java.time.Duration;
+
+/**
+ * Moves a value to a target over a set time, along an {@link Easing}. Time is counted in whole
+ * clock intervals rather than summed up from frame times, so the value lands exactly on the target
+ * and the tween then stops asking for frames. The tween joins its clock with the first target it's
+ * given and leaves it in {@link #stop()}.
+ */
+public final class Tween implements Animated {
+
+    private final AnimationClock clock;
+    private final Easing easing;
+    private final long steps;
+    private final long stepNanos;
+    private double from;
+    private double value;
+    private double target;
+    private long step;
+    private long pendingNanos;
+    private boolean running;
+    private boolean registered;
+
+    public Tween(AnimationClock clock, Easing easing, Duration duration, double initial) {
+        this.clock = clock;
+        this.easing = easing;
+        this.stepNanos = clock.interval().toNanos();
+        this.steps = Math.max((duration.toNanos() + stepNanos - 1) / stepNanos, 1);
+        this.value = initial;
+        this.target = initial;
+    }
+
+    public double value() {
+        return value;
+    }
+
+    public double target() {
+        return target;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts moving from the current value to the target. Returns the command waking the clock,
+     * if it has stopped.
+     */
+    public Command to(double target) {
+        this.from = value;
+        this.target = target;
+        this.step = 0;
+        this.pendingNanos = 0;
+        if (from == target) {
+            running = false;
+            return null;
+        }
+        running = true;
+        if (!registered) {
+            clock.register(this);
+            registered = true;
+        }
+        return clock.wake();
+    }
+
+    /**
+     * Takes the tween off its clock, leaving the value where it is. Setting a target puts it back.
+     */
+    public void stop() {
+        if (registered) {
+            clock.unregister(this);
+            registered = false;
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean animate(AnimationFrame frame) {
+        if (!running) {
+            return false;
+        }
+        pendingNanos += frame.deltaNanos();
+        step = Math.min(step + pendingNanos / stepNanos, steps);
+        pendingNanos %= stepNanos;
+        if (step == steps) {
+            value = target;
+            running = false;
+            return false;
+        }
+        value = from + (target - from) * easing.ease((double) step / steps);
+        return true;
+    }
+}
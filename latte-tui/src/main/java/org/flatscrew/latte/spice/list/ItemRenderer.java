@@ -0,0 +1,11 @@
+package org.flatscrew.latte.spice.list;
+
+/**
+ * Renders an item of a {@link VirtualList} as a single line. Rendered rows are cached by item and
+ * selection, so the result must depend on nothing else.
+ */
+@FunctionalInterface
+public interface ItemRenderer<T> {
+
+    String render(T item, boolean selected);
+}
@@ -0,0 +1,245 @@
+package org.flatscrew.latte.spice.list;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Frame;
+import org.flatscrew.latte.FrameModel;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.UpdateResult;
+import org.flatscrew.latte.message.KeyPress;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * A list that only ever looks at the items it shows. Items are fetched by index when they scroll
+ * into view, so the list can be backed by anything from a {@link List} to a database cursor, and
+ * moving through it costs the same for ten items as for millions. Rendered rows are cached by item
+ * and selection, and a few rows around the visible ones are rendered ahead, so scrolling line by
+ * line usually renders a single new row.
+ * <p>
+ * Keys: up/down or k/j move, page up/page down move by a page, home/end or g/G jump to the first
+ * and last item.
+ */
+public class VirtualList<T> implements FrameModel {
+
+    private static final int DEFAULT_HEIGHT = 10;
+    private static final int DEFAULT_OVERSCAN = 2;
+
+    private final IntSupplier size;
+    private final IntFunction<T> items;
+    private ItemRenderer<T> renderer = (item, selected) -> (selected ? "(•) " : "( ) ") + item;
+    private int height = DEFAULT_HEIGHT;
+    private int overscan = DEFAULT_OVERSCAN;
+    private int cursor;
+    private int offset;
+    private RowCache<T> rows = new RowCache<>(cacheSize(DEFAULT_HEIGHT, DEFAULT_OVERSCAN));
+
+    /**
+     * @param size  number of items, asked for whenever it matters, so it may change
+     * @param items the item at an index
+     */
+    public VirtualList(IntSupplier size, IntFunction<T> items) {
+        this.size = size;
+        this.items = items;
+    }
+
+    public static <T> VirtualList<T> of(List<T> items) {
+        return new VirtualList<>(items::size, items::get);
+    }
+
+    public VirtualList<T> renderer(ItemRenderer<T> renderer) {
+        this.renderer = renderer;
+        this.rows = new RowCache<>(rows.maxEntries);
+        return this;
+    }
+
+    /**
+     * Sets how many rows are shown.
+     */
+    public VirtualList<T> height(int height) {
+        this.height = Math.max(height, 1);
+        resizeCache();
+        scrollToCursor();
+        return this;
+    }
+
+    /**
+     * Sets how many rows above and below the visible ones are rendered ahead.
+     */
+    public VirtualList<T> overscan(int overscan) {
+        this.overscan = Math.max(overscan, 0);
+        resizeCache();
+        return this;
+    }
+
+    public int cursor() {
+        return cursor;
+    }
+
+    /**
+     * The item under the cursor, {@code null} if the list is empty.
+     */
+    public T selectedItem() {
+        int size = size();
+        return size > 0 ? items.apply(Math.min(cursor, size - 1)) : null;
+    }
+
+    public void moveUp() {
+        jump(cursor - 1);
+    }
+
+    public void moveDown() {
+        jump(cursor + 1);
+    }
+
+    public void pageUp() {
+        jump(cursor - height);
+    }
+
+    public void pageDown() {
+        jump(cursor + height);
+    }
+
+    public void home() {
+        jump(0);
+    }
+
+    public void end() {
+        jump(size() - 1);
+    }
+
+    /**
+     * Moves the cursor to an item. If it isn't visible yet, it's shown in the middle of the list.
+     */
+    public void jumpTo(int index) {
+        cursor = clamp(index, size());
+        if (cursor < offset || cursor >= offset + height) {
+            offset = cursor - height / 2;
+        }
+        clampOffset();
+    }
+
+    private void jump(int index) {
+        cursor = clamp(index, size());
+        scrollToCursor();
+    }
+
+    private void scrollToCursor() {
+        if (cursor < offset) {
+            offset = cursor;
+        } else if (cursor >= offset + height) {
+            offset = cursor - height + 1;
+        }
+        clampOffset();
+    }
+
+    private void clampOffset() {
+        offset = Math.max(Math.min(offset, size() - height), 0);
+    }
+
+    @Override
+    public Command init() {
+        return null;
+    }
+
+    @Override
+    public UpdateResult<? extends FrameModel> update(Message msg) {
+        if (msg instanceof KeyPress keyPress) {
+            switch (keyPress.type()) {
+                case UP -> moveUp();
+                case DOWN -> moveDown();
+                case PAGE_UP -> pageUp();
+                case PAGE_DOWN -> pageDown();
+                case HOME -> home();
+                case END -> end();
+                case RUNE -> {
+                    switch (keyPress.key()) {
+                        case 'k' -> moveUp();
+                        case 'j' -> moveDown();
+                        case 'g' -> home();
+                        case 'G' -> end();
+                        default -> {
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return UpdateResult.from(this);
+    }
+
+    @Override
+    public void view(Frame frame) {
+        int size = size();
+        // the list may have shrunk since the cursor was last moved
+        if (cursor >= size) {
+            cursor = Math.max(size - 1, 0);
+        }
+        scrollToCursor();
+
+        int end = Math.min(offset + height, size);
+        for (int index = offset; index < end; index++) {
+            frame.add(row(index));
+        }
+        for (int index = Math.max(offset - overscan, 0); index < offset; index++) {
+            row(index);
+        }
+        for (int index = end; index < Math.min(end + overscan, size); index++) {
+            row(index);
+        }
+    }
+
+    private String row(int index) {
+        return rows.get(items.apply(index), index == cursor, renderer);
+    }
+
+    private int size() {
+        return Math.max(size.getAsInt(), 0);
+    }
+
+    private void resizeCache() {
+        int maxEntries = cacheSize(height, overscan);
+        if (maxEntries > rows.maxEntries) {
+            rows = new RowCache<>(maxEntries);
+        }
+    }
+
+    private static int cacheSize(int height, int overscan) {
+        // enough for the visible rows, the overscan and a page in either direction
+        return 4 * (height + 2 * overscan);
+    }
+
+    private static int clamp(int index, int size) {
+        return Math.max(Math.min(index, size - 1), 0);
+    }
+
+    /**
+     * Rendered rows by item and selection, least recently used ones are dropped.
+     */
+    private static final class RowCache<T> {
+
+        private final int maxEntries;
+        private final Map<Row, String> rows;
+
+        private RowCache(int maxEntries) {
+            this.maxEntries = maxEntries;
+            this.rows = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Row, String> eldest) {
+                    return size() > RowCache.this.maxEntries;
+                }
+            };
+        }
+
+        private String get(T item, boolean selected, ItemRenderer<T> renderer) {
+            return rows.computeIfAbsent(new Row(item, selected), row -> renderer.render(item, selected));
+        }
+    }
+
+    private record Row(Object item, boolean selected) {
+    }
+}
@@ -0,0 +1,12 @@
+package org.flatscrew.latte.spice.pager;
+
+import org.flatscrew.latte.Message;
+
+/**
+ * Tells a pager that scanning a chunk of its file failed, usually because the file was truncated
+ * under the scan. Pass it on to the pager's update.
+ */
+public record IndexFailedMessage(
+        int id,
+        int generation) implements Message {
+}
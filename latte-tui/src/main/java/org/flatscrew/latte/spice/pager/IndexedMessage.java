@@ -0,0 +1,18 @@
+package org.flatscrew.latte.spice.pager;
+
+import org.flatscrew.latte.Message;
+
+/**
+ * Line offsets a pager found scanning a chunk of its file in the background. Pass it on to the
+ * pager's update.
+ */
+public record IndexedMessage(
+        int id,
+        int generation,
+        long from,
+        long to,
+        long newlines,
+        long firstLine,
+        int stride,
+        long[] offsets) implements Message {
+}
@@ -0,0 +1,185 @@
+package org.flatscrew.latte.spice.pager;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Byte offsets of every {@code stride}-th line. The index never holds more than
+ * {@link #MAX_ENTRIES} offsets: when it's full, every other one is dropped and the stride doubles,
+ * so finding a line costs skipping at most {@code stride} lines from the nearest offset.
+ * <p>
+ * The file is scanned in chunks by {@link #scan} on command threads; only the event loop touches
+ * the index itself.
+ */
+final class LineIndex {
+
+    static final int MAX_ENTRIES = 1 << 16;
+    static final int CHUNK_SIZE = 64 << 20;
+
+    private final int maxEntries;
+    private long[] offsets;
+    private int entries = 1;
+    private int stride = 1;
+    // bytes scanned so far and the newlines among them
+    private long end;
+    private long newlines;
+
+    LineIndex() {
+        this(MAX_ENTRIES);
+    }
+
+    /**
+     * An index holding at most {@code maxEntries} offsets, a power of two. Small ones let tests
+     * go through many compactions.
+     */
+    LineIndex(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.offsets = new long[Math.min(1024, maxEntries)];
+    }
+
+    int maxEntries() {
+        return maxEntries;
+    }
+
+    long end() {
+        return end;
+    }
+
+    long newlines() {
+        return newlines;
+    }
+
+    int stride() {
+        return stride;
+    }
+
+    /**
+     * Finds the lines in {@code [from, to)} whose number is a multiple of {@code stride}, doubling
+     * the stride itself whenever there would be more than {@code maxEntries} of them.
+     *
+     * @param newlinesBefore newlines in the file before {@code from}
+     * @param maxEntries the {@linkplain #maxEntries() size} of the index the lines are for
+     * @return the lines found, or {@code null} if the file was truncated while scanning it
+     */
+    static IndexedMessage scan(int id, int generation, FileChannel channel,
+                               long from, long to, long newlinesBefore, int stride,
+                               int maxEntries) throws IOException {
+        MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        long[] found = new long[64];
+        int count = 0;
+        long line = newlinesBefore;
+        int length = (int) (to - from);
+        for (int i = 0; i < length; i++) {
+            try {
+                if (chunk.get(i) != '\n') {
+                    continue;
+                }
+            } catch (InternalError e) {
+                // the page is gone from the file, the JVM turns the bus error into this
+                return null;
+            }
+            line++;
+            if ((line & (stride - 1)) != 0) {
+                continue;
+            }
+            if (count == maxEntries) {
+                count = keepMultiples(found, count, line - (long) count * stride, stride);
+                stride <<= 1;
+                if ((line & (stride - 1)) != 0) {
+                    continue;
+                }
+            }
+            if (count == found.length) {
+                found = Arrays.copyOf(found, count * 2);
+            }
+            found[count++] = from + i + 1;
+        }
+        long firstLine = (newlinesBefore / stride + 1) * stride;
+        return new IndexedMessage(id, generation, from, to, line - newlinesBefore, firstLine, stride,
+                Arrays.copyOf(found, count));
+    }
+
+    // keeps the offsets of lines whose number is a multiple of twice the stride
+    private static int keepMultiples(long[] found, int count, long firstLine, int stride) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (((firstLine + (long) i * stride) & ((long) stride * 2 - 1)) == 0) {
+                found[kept++] = found[i];
+            }
+        }
+        return kept;
+    }
+
+    void add(IndexedMessage chunk) {
+        while (stride < chunk.stride()) {
+            compact();
+        }
+        long[] found = chunk.offsets();
+        for (int i = 0; i < found.length; i++) {
+            long line = chunk.firstLine() + (long) i * chunk.stride();
+            if ((line & (stride - 1)) != 0) {
+                continue;
+            }
+            if (entries == maxEntries) {
+                compact();
+                if ((line & (stride - 1)) != 0) {
+                    continue;
+                }
+            }
+            if (entries == offsets.length) {
+                offsets = Arrays.copyOf(offsets, Math.min(entries * 2, maxEntries));
+            }
+            offsets[entries++] = found[i];
+        }
+        end = chunk.to();
+        newlines += chunk.newlines();
+    }
+
+    private void compact() {
+        int kept = 0;
+        for (int i = 0; i < entries; i += 2) {
+            offsets[kept++] = offsets[i];
+        }
+        entries = kept;
+        stride <<= 1;
+    }
+
+    /**
+     * The number of the line starting at {@code lineStart}, -1 if that part of the file hasn't
+     * been scanned yet.
+     */
+    long lineAt(long lineStart, MappedFile file) {
+        if (lineStart > end) {
+            return -1;
+        }
+        int low = 0;
+        int high = entries - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (offsets[middle] <= lineStart) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return (long) low * stride + file.countNewlines(offsets[low], lineStart);
+    }
+
+    /**
+     * Start of the given line, or of the last line that can be reached if the file is shorter.
+     */
+    long lineStart(long line, MappedFile file) {
+        int entry = (int) Math.min(line / stride, entries - 1);
+        long position = offsets[entry];
+        for (long skip = line - (long) entry * stride; skip > 0; skip--) {
+            long next = file.nextLineStart(position);
+            if (next < 0) {
+                break;
+            }
+            position = next;
+        }
+        return position;
+    }
+}
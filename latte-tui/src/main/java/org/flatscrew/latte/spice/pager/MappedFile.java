@@ -0,0 +1,202 @@
+package org.flatscrew.latte.spice.pager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file read through memory mappings of a few fixed-size windows, however big the file is. The
+ * two windows used last are kept, so reading across a window boundary doesn't map them again
+ * for every line.
+ * <p>
+ * Lines longer than {@link #MAX_LINE_BYTES} are split into soft lines of that length, so finding
+ * the next or previous line never reads more than that. They are cut counting from where the move
+ * starts, so a long line may be split differently scrolling up than scrolling down.
+ */
+final class MappedFile implements Closeable {
+
+    private static final int WINDOW_SIZE = 16 << 20;
+    // a line longer than this is split, nobody reads that far to the right anyway
+    private static final int MAX_LINE_BYTES = 16 << 10;
+
+    private final FileChannel channel;
+    private long size;
+    // below size when the file has been truncated under the windows since the size was read
+    private long readable;
+    private MappedByteBuffer current;
+    private long currentStart;
+    private MappedByteBuffer previous;
+    private long previousStart;
+
+    MappedFile(Path path) {
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = channel.size();
+            this.readable = size;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    FileChannel channel() {
+        return channel;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Reads the file size again and returns it. Windows mapped while the file was shorter are
+     * dropped, they end where the file used to.
+     */
+    long refreshSize() {
+        try {
+            long newSize = channel.size();
+            if (newSize != size || readable != size) {
+                size = newSize;
+                readable = newSize;
+                current = null;
+                previous = null;
+            }
+            return size;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The byte at {@code position}. Bytes the file has lost to a truncation since its size was
+     * read come back as line breaks, until {@link #refreshSize()} notices.
+     */
+    byte byteAt(long position) {
+        if (position >= readable) {
+            return '\n';
+        }
+        if (current == null || position < currentStart || position >= currentStart + current.limit()) {
+            if (previous != null && position >= previousStart && position < previousStart + previous.limit()) {
+                MappedByteBuffer window = previous;
+                long windowStart = previousStart;
+                previous = current;
+                previousStart = currentStart;
+                current = window;
+                currentStart = windowStart;
+            } else {
+                previous = current;
+                previousStart = currentStart;
+                currentStart = position - position % WINDOW_SIZE;
+                try {
+                    current = channel.map(FileChannel.MapMode.READ_ONLY, currentStart,
+                            Math.min(WINDOW_SIZE, readable - currentStart));
+                } catch (IOException e) {
+                    // a read-only mapping can't reach past the end, the file has been truncated
+                    truncated(position);
+                    return byteAt(position);
+                }
+            }
+        }
+        try {
+            return current.get((int) (position - currentStart));
+        } catch (InternalError e) {
+            // the page is gone from the file, the JVM turns the bus error into this
+            truncated(position);
+            return byteAt(position);
+        }
+    }
+
+    private void truncated(long position) {
+        current = null;
+        previous = null;
+        try {
+            readable = Math.min(channel.size(), position);
+        } catch (IOException e) {
+            readable = 0;
+        }
+    }
+
+    /**
+     * Start of the line after the one containing {@code position}, -1 if that's the last line.
+     */
+    long nextLineStart(long position) {
+        // the line break may follow the longest line still allowed
+        long limit = Math.min(size, position + MAX_LINE_BYTES + 1);
+        for (long p = position; p < limit; p++) {
+            if (byteAt(p) == '\n') {
+                return p + 1 < size ? p + 1 : -1;
+            }
+        }
+        return limit < size ? position + MAX_LINE_BYTES : -1;
+    }
+
+    /**
+     * Start of the line before the one starting at {@code lineStart}, -1 if that's the first line.
+     */
+    long previousLineStart(long lineStart) {
+        return lineStart <= 0 ? -1 : lineStartBefore(lineStart);
+    }
+
+    /**
+     * Start of the last line, 0 for an empty file.
+     */
+    long lastLineStart() {
+        // a newline at the very end terminates the last line rather than starting another one
+        return size == 0 ? 0 : lineStartBefore(size);
+    }
+
+    private long lineStartBefore(long position) {
+        // skip the newline ending the line, a soft line has none
+        long end = byteAt(position - 1) == '\n' ? position - 1 : position;
+        long limit = Math.max(end - MAX_LINE_BYTES, 0);
+        for (long p = end - 1; p >= limit; p--) {
+            if (byteAt(p) == '\n') {
+                return p + 1;
+            }
+        }
+        return limit;
+    }
+
+    int countNewlines(long from, long to) {
+        int newlines = 0;
+        for (long p = from; p < to; p++) {
+            if (byteAt(p) == '\n') {
+                newlines++;
+            }
+        }
+        return newlines;
+    }
+
+    /**
+     * Decodes the line starting at {@code lineStart}, without its line break.
+     */
+    String line(long lineStart) {
+        long limit = Math.min(size, lineStart + MAX_LINE_BYTES);
+        long end = lineStart;
+        while (end < limit && byteAt(end) != '\n') {
+            end++;
+        }
+        if (end > lineStart && byteAt(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[(int) (end - lineStart)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = byteAt(lineStart + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        current = null;
+        previous = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package org.flatscrew.latte.spice.pager;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Frame;
+import org.flatscrew.latte.FrameModel;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.UpdateResult;
+import org.flatscrew.latte.command.Batch;
+import org.flatscrew.latte.command.Tick;
+import org.flatscrew.latte.cream.TextWidth;
+import org.flatscrew.latte.message.KeyPress;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pager for files of any size, logs that keep growing included. The file is memory-mapped a
+ * window at a time and only the lines on screen are decoded, so scrolling costs the same at the
+ * start of a file as a few gigabytes into it, and memory use doesn't depend on the file size.
+ * <p>
+ * Lines are counted in the background, into a sparse index used to jump to a line and to tell
+ * which line is on top; until the scan gets there, {@link #topLine()} and {@link #lineCount()}
+ * are unknown, but scrolling works all the same. The file is checked for new content
+ * periodically; when following, a pager scrolled to the end stays there as lines are appended,
+ * like {@code tail -f}.
+ * <p>
+ * Keys: up/down or k/j scroll by a line, page up/page down or b/space by a page, home/end or g/G
+ * jump to the start and the end.
+ */
+public class Pager implements FrameModel, AutoCloseable {
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final int DEFAULT_HEIGHT = 20;
+    private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(250);
+    private static final int TAB_WIDTH = 8;
+
+    private final int id = NEXT_ID.incrementAndGet();
+    private final MappedFile file;
+    private LineIndex index = new LineIndex();
+    private int indexGeneration;
+    private boolean indexing;
+
+    private int height = DEFAULT_HEIGHT;
+    private int width;
+    private Duration pollInterval = DEFAULT_POLL_INTERVAL;
+    private boolean follow;
+    // whether the view sits at the end of the file, which following keeps it at
+    private boolean atEnd;
+    private long topOffset;
+    private String[] visible;
+
+    /**
+     * Opens a file for paging.
+     *
+     * @throws UncheckedIOException if the file can't be opened
+     */
+    public Pager(Path path) {
+        this.file = new MappedFile(path);
+    }
+
+    public Pager height(int height) {
+        this.height = Math.max(height, 1);
+        visible = null;
+        return this;
+    }
+
+    /**
+     * Cuts lines to the given number of columns, 0 leaves them as they are.
+     */
+    public Pager width(int width) {
+        this.width = Math.max(width, 0);
+        visible = null;
+        return this;
+    }
+
+    /**
+     * Keeps the view at the end of the file as it grows, as long as it was scrolled there.
+     */
+    public Pager follow(boolean follow) {
+        this.follow = follow;
+        return this;
+    }
+
+    public Pager pollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+        return this;
+    }
+
+    @Override
+    public Command init() {
+        return Batch.batch(indexNextChunk(), poll());
+    }
+
+    private Command poll() {
+        return Tick.tick(pollInterval, time -> new PollMessage(time, id));
+    }
+
+    private Command indexNextChunk() {
+        long from = index.end();
+        long to = Math.min(file.size(), from + LineIndex.CHUNK_SIZE);
+        if (indexing || from >= to) {
+            return null;
+        }
+        indexing = true;
+        int pagerId = id;
+        int generation = indexGeneration;
+        long newlines = index.newlines();
+        int stride = index.stride();
+        int maxEntries = index.maxEntries();
+        return () -> {
+            try {
+                IndexedMessage indexed = LineIndex.scan(
+                        pagerId, generation, file.channel(), from, to, newlines, stride, maxEntries);
+                if (indexed != null) {
+                    return indexed;
+                }
+            } catch (IOException e) {
+                // tried again on the next poll
+            }
+            return new IndexFailedMessage(pagerId, generation);
+        };
+    }
+
+    @Override
+    public UpdateResult<? extends FrameModel> update(Message msg) {
+        if (msg instanceof IndexedMessage indexed) {
+            if (indexed.id() != id || indexed.generation() != indexGeneration) {
+                return UpdateResult.from(this);
+            }
+            index.add(indexed);
+            indexing = false;
+            return UpdateResult.from(this, indexNextChunk());
+        }
+        if (msg instanceof IndexFailedMessage failed) {
+            if (failed.id() != id || failed.generation() != indexGeneration) {
+                return UpdateResult.from(this);
+            }
+            // the file changed under the scan, whatever it grew back to, the counts are void
+            index = new LineIndex();
+            indexGeneration++;
+            indexing = false;
+            return UpdateResult.from(this);
+        }
+        if (msg instanceof PollMessage pollMessage) {
+            if (pollMessage.id() != id) {
+                return UpdateResult.from(this);
+            }
+            return UpdateResult.from(this, Batch.batch(checkForChanges(), poll()));
+        }
+        if (msg instanceof KeyPress keyPress) {
+            switch (keyPress.type()) {
+                case UP -> lineUp();
+                case DOWN -> lineDown();
+                case PAGE_UP -> pageUp();
+                case PAGE_DOWN -> pageDown();
+                case HOME -> home();
+                case END -> end();
+                case RUNE -> {
+                    switch (keyPress.key()) {
+                        case 'k' -> lineUp();
+                        case 'j' -> lineDown();
+                        case 'b' -> pageUp();
+                        case ' ' -> pageDown();
+                        case 'g' -> home();
+                        case 'G' -> end();
+                        default -> {
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return UpdateResult.from(this);
+    }
+
+    private Command checkForChanges() {
+        long oldSize = file.size();
+        long newSize = file.refreshSize();
+        if (newSize == oldSize) {
+            // picks the index up again after a failed scan
+            return indexNextChunk();
+        }
+        visible = null;
+        if (newSize < oldSize) {
+            // truncated or replaced, what was counted so far may not be there anymore
+            index = new LineIndex();
+            indexGeneration++;
+            indexing = false;
+        }
+        if (follow && atEnd) {
+            end();
+        } else if (newSize < oldSize) {
+            home();
+        }
+        return indexNextChunk();
+    }
+
+    public void lineUp() {
+        scrollUp(1);
+    }
+
+    public void lineDown() {
+        scrollDown(1);
+    }
+
+    public void pageUp() {
+        scrollUp(height);
+    }
+
+    public void pageDown() {
+        scrollDown(height);
+    }
+
+    public void home() {
+        moveTo(0);
+    }
+
+    public void end() {
+        moveTo(lastPageStart());
+    }
+
+    /**
+     * Scrolls the given line to the top. Lines beyond what has been counted so far are found by
+     * reading on from the last counted one.
+     */
+    public void goToLine(long line) {
+        long start = index.lineStart(Math.max(line, 0), file);
+        moveTo(Math.min(start, lastPageStart()));
+    }
+
+    private void scrollUp(int lines) {
+        long position = topOffset;
+        for (int i = 0; i < lines; i++) {
+            long previous = file.previousLineStart(position);
+            if (previous < 0) {
+                break;
+            }
+            position = previous;
+        }
+        moveTo(position);
+    }
+
+    private void scrollDown(int lines) {
+        long lastPageStart = lastPageStart();
+        long position = topOffset;
+        for (int i = 0; i < lines && position < lastPageStart; i++) {
+            long next = file.nextLineStart(position);
+            if (next < 0) {
+                break;
+            }
+            position = next;
+        }
+        moveTo(Math.min(position, lastPageStart));
+    }
+
+    private void moveTo(long position) {
+        if (position != topOffset) {
+            topOffset = position;
+            visible = null;
+        }
+        atEnd = position >= lastPageStart();
+    }
+
+    // the top line of the last page, reached reading backwards from the end
+    private long lastPageStart() {
+        long position = file.lastLineStart();
+        for (int i = 1; i < height; i++) {
+            long previous = file.previousLineStart(position);
+            if (previous < 0) {
+                break;
+            }
+            position = previous;
+        }
+        return position;
+    }
+
+    /**
+     * Number of the line on top, counting from 0, or -1 if the scan hasn't got that far yet.
+     */
+    public long topLine() {
+        return index.lineAt(topOffset, file);
+    }
+
+    /**
+     * Number of lines in the file, or -1 while they are still being counted.
+     */
+    public long lineCount() {
+        if (index.end() < file.size()) {
+            return -1;
+        }
+        long size = file.size();
+        return size > 0 && file.byteAt(size - 1) != '\n' ? index.newlines() + 1 : index.newlines();
+    }
+
+    public long size() {
+        return file.size();
+    }
+
+    public boolean isAtEnd() {
+        return atEnd;
+    }
+
+    @Override
+    public void view(Frame frame) {
+        if (visible == null) {
+            visible = new String[height];
+            long position = file.size() > 0 ? topOffset : -1;
+            for (int i = 0; i < height; i++) {
+                if (position < 0) {
+                    visible[i] = "";
+                    continue;
+                }
+                visible[i] = displayed(file.line(position));
+                position = file.nextLineStart(position);
+            }
+        }
+        for (String line : visible) {
+            frame.add(line);
+        }
+    }
+
+    private String displayed(String line) {
+        StringBuilder out = null;
+        int column = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t' || (c < 0x20 && c != '\033') || c == 0x7F) {
+                if (out == null) {
+                    out = new StringBuilder(line.length() + TAB_WIDTH).append(line, 0, i);
+                    column = TextWidth.width(line, 0, i);
+                }
+                if (c == '\t') {
+                    do {
+                        out.append(' ');
+                        column++;
+                    } while (column % TAB_WIDTH != 0);
+                }
+                // other control characters would move the cursor, they are dropped
+            } else if (out != null) {
+                out.append(c);
+                column += c < 0x7F ? 1 : TextWidth.codePointWidth(c);
+            }
+        }
+        String text = out != null ? out.toString() : line;
+        if (width > 0) {
+            text = text.substring(0, TextWidth.truncate(text, 0, text.length(), width));
+        }
+        return text;
+    }
+
+    @Override
+    public void close() {
+        file.close();
+    }
+}
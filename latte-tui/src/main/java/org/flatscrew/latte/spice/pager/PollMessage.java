@@ -0,0 +1,13 @@
+package org.flatscrew.latte.spice.pager;
+
+import org.flatscrew.latte.Message;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tells a pager to check whether its file has grown. Pass it on to the pager's update.
+ */
+public record PollMessage(
+        LocalDateTime time,
+        int id) implements Message {
+}
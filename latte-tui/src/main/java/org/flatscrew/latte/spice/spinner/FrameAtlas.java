@@ -0,0 +1,51 @@
+package org.flatscrew.latte.spice.spinner;
+
+import org.flatscrew.latte.cream.Style;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The frames of a spinner type rendered in a style, once for all spinners sharing both.
+ */
+final class FrameAtlas {
+
+    // styles are usually constants, the limit only guards against ones made on every render
+    private static final int MAX_ATLASES = 256;
+    private static final Map<Key, FrameAtlas> ATLASES = new ConcurrentHashMap<>();
+
+    private record Key(SpinnerType type, Style style) {
+    }
+
+    private final String[] frames;
+
+    private FrameAtlas(SpinnerType type, Style style) {
+        String[] plain = type.frames();
+        this.frames = new String[plain.length];
+        for (int i = 0; i < plain.length; i++) {
+            frames[i] = style.render(plain[i]);
+        }
+    }
+
+    static FrameAtlas of(SpinnerType type, Style style) {
+        Key key = new Key(type, style);
+        FrameAtlas atlas = ATLASES.get(key);
+        if (atlas != null) {
+            return atlas;
+        }
+        atlas = new FrameAtlas(type, style);
+        if (ATLASES.size() < MAX_ATLASES) {
+            FrameAtlas existing = ATLASES.putIfAbsent(key, atlas);
+            return existing != null ? existing : atlas;
+        }
+        return atlas;
+    }
+
+    int size() {
+        return frames.length;
+    }
+
+    String frame(int index) {
+        return frames[index];
+    }
+}
@@ -0,0 +1,113 @@
+package org.flatscrew.latte.spice.spinner;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.Model;
+import org.flatscrew.latte.UpdateResult;
+import org.flatscrew.latte.command.Tick;
+import org.flatscrew.latte.cream.Style;
+import org.flatscrew.latte.spice.animation.AnimationClock;
+import org.flatscrew.latte.spice.animation.AnimationFrame;
+import org.flatscrew.latte.spice.animation.Animated;
+
+import java.time.LocalDateTime;
+
+/**
+ * A spinner ticking on its own, or driven by an {@link AnimationClock} shared with other
+ * animations. A clock ticks once for all of its spinners, which matters once there are many of
+ * them; the spinner then shows the frame for the time that has passed and ignores messages, the
+ * clock's tick goes to {@link AnimationClock#update} instead. Such a spinner joins its clock in
+ * {@link #init()} and leaves it in {@link #stop()}.
+ */
+public class Spinner implements Model, Animated {
+
+    private final SpinnerType type;
+    private final AnimationClock clock;
+    private FrameAtlas atlas;
+    private int frame;
+    private int id;
+    private int tag;
+    private long startNanos = -1;
+    private boolean registered;
+
+    public Spinner(SpinnerType type) {
+        this.type = type;
+        this.clock = null;
+        this.atlas = FrameAtlas.of(type, new Style());
+    }
+
+    public Spinner(SpinnerType type, AnimationClock clock) {
+        this.type = type;
+        this.clock = clock;
+        this.atlas = FrameAtlas.of(type, new Style());
+    }
+
+    public Spinner style(Style style) {
+        this.atlas = FrameAtlas.of(type, style);
+        return this;
+    }
+
+    public Command init() {
+        if (clock != null) {
+            if (!registered) {
+                clock.register(this);
+                registered = true;
+            }
+            return clock.wake();
+        }
+        return () -> new TickMessage(LocalDateTime.now(), tag, id);
+    }
+
+    /**
+     * Takes the spinner off its clock, which otherwise keeps animating it for as long as the clock
+     * lives. {@link #init()} puts it back.
+     */
+    public void stop() {
+        if (registered) {
+            clock.unregister(this);
+            registered = false;
+            startNanos = -1;
+        }
+    }
+
+    public UpdateResult<? extends Model> update(Message msg) {
+        if (clock == null && msg instanceof TickMessage tickMessage) {
+            if (tickMessage.id() > 0 && tickMessage.id() != id) {
+                return UpdateResult.from(this);
+            }
+            if (tickMessage.tag() > 0 && tickMessage.tag() != tag) {
+                return UpdateResult.from(this);
+            }
+
+            frame++;
+            if (frame >= atlas.size()) {
+                frame = 0;
+            }
+
+            tag++;
+            return UpdateResult.from(
+                    this,
+                    Tick.tick(type.duration(), localDateTime -> new TickMessage(localDateTime, tag, id))
+            );
+        }
+
+        return UpdateResult.from(this);
+    }
+
+    @Override
+    public boolean animate(AnimationFrame animationFrame) {
+        if (startNanos < 0) {
+            startNanos = animationFrame.elapsedNanos();
+        }
+        long frames = (animationFrame.elapsedNanos() - startNanos) / type.duration().toNanos();
+        frame = (int) (frames % atlas.size());
+        return true;
+    }
+
+    public String view() {
+        if (frame >= atlas.size()) {
+            return "(error)";
+        }
+        return atlas.frame(frame);
+    }
+}
@@ -0,0 +1,36 @@
+package org.flatscrew.latte.spice.spinner;
+
+import java.time.Duration;
+
+public enum SpinnerType {
+
+    LINE(10, "|", "/", "-", "\\"),
+    DOT(10, "⣾ ", "⣽ ", "⣻ ", "⢿ ", "⡿ ", "⣟ ", "⣯ ", "⣷ "),
+    MINI_DOT(12, "⠋", "⠙", "⠹", "⠸", "⠼", "⠴", "⠦", "⠧", "⠇", "⠏"),
+    JUMP(10, "⢄", "⢂", "⢁", "⡁", "⡈", "⡐", "⡠"),
+    PULSE(8, "█", "▓", "▒", "░"),
+    POINTS(7, "∙∙∙", "●∙∙", "∙●∙", "∙∙●"),
+    GLOBE(4, "🌍", "🌎", "🌏"),
+    MOON(8, "🌑", "🌒", "🌓", "🌔", "🌕", "🌖", "🌗", "🌘"),
+    MONKEY(3, "🙈", "🙉", "🙊"),
+    METER(7, "▱▱▱", "▰▱▱", "▰▰▱", "▰▰▰", "▰▰▱", "▰▱▱", "▱▱▱"),
+    HAMBURGER(3, "☱", "☲", "☴", "☲"),
+    ELLIPSIS(3, "", ".", "..", "...");
+
+    // frames are shared by all spinners of a type, nothing may modify them
+    private final String[] frames;
+    private final Duration duration;
+
+    SpinnerType(int framesPerSecond, String... frames) {
+        this.frames = frames;
+        this.duration = Duration.ofSeconds(1).dividedBy(framesPerSecond);
+    }
+
+    String[] frames() {
+        return frames;
+    }
+
+    Duration duration() {
+        return duration;
+    }
+}
@@ -0,0 +1,24 @@
+package org.flatscrew.latte.spice.table;
+
+import java.util.Comparator;
+
+/**
+ * A table column. A width of 0 makes the column as wide as its widest cell.
+ */
+public record Column(String title, int width, Comparator<String> comparator) {
+
+    public static Column of(String title) {
+        return new Column(title, 0, Comparator.naturalOrder());
+    }
+
+    public static Column of(String title, int width) {
+        return new Column(title, width, Comparator.naturalOrder());
+    }
+
+    /**
+     * Returns this column sorting its cells with the given comparator, e.g. numerically.
+     */
+    public Column comparing(Comparator<String> comparator) {
+        return new Column(title, width, comparator);
+    }
+}
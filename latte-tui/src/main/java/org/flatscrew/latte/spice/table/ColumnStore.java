@@ -0,0 +1,56 @@
+package org.flatscrew.latte.spice.table;
+
+import java.util.Arrays;
+
+/**
+ * Table cells stored column by column. Rows are only ever appended, so an array handed out keeps
+ * the rows it held at that time even after the store has grown into a new one, which is what lets
+ * sorting read a column on another thread.
+ */
+final class ColumnStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final String[][] columns;
+    private int rows;
+
+    ColumnStore(int columnCount) {
+        this.columns = new String[columnCount][INITIAL_CAPACITY];
+    }
+
+    void append(String[] cells) {
+        if (rows == columns[0].length) {
+            int capacity = rows + (rows >> 1);
+            for (int column = 0; column < columns.length; column++) {
+                columns[column] = Arrays.copyOf(columns[column], capacity);
+            }
+        }
+        for (int column = 0; column < columns.length; column++) {
+            String cell = cells[column];
+            columns[column][rows] = cell != null ? cell : "";
+        }
+        rows++;
+    }
+
+    String get(int row, int column) {
+        return columns[column][row];
+    }
+
+    /**
+     * The cells of a column, valid up to the current number of rows.
+     */
+    String[] column(int column) {
+        return columns[column];
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    void clear() {
+        for (int column = 0; column < columns.length; column++) {
+            columns[column] = new String[INITIAL_CAPACITY];
+        }
+        rows = 0;
+    }
+}
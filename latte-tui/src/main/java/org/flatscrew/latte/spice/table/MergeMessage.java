@@ -0,0 +1,13 @@
+package org.flatscrew.latte.spice.table;
+
+import org.flatscrew.latte.Message;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tells a table to merge the rows appended since it last did. Pass it on to the table's update.
+ */
+public record MergeMessage(
+        LocalDateTime time,
+        int id) implements Message {
+}
@@ -0,0 +1,83 @@
+package org.flatscrew.latte.spice.table;
+
+import java.util.Comparator;
+
+/**
+ * Sorts row indices by the cells of a column, stably, so rows with equal cells keep the order
+ * they were appended in.
+ */
+final class RowOrder {
+
+    private RowOrder() {
+    }
+
+    /**
+     * Extends an order of the first {@code sorted.length} rows to the first {@code rows} rows: the
+     * new rows are sorted on their own and merged in.
+     */
+    static int[] merge(int[] sorted, String[] cells, int rows, Comparator<String> comparator) {
+        int tailLength = rows - sorted.length;
+        int[] tail = new int[tailLength];
+        for (int i = 0; i < tailLength; i++) {
+            tail[i] = sorted.length + i;
+        }
+        sort(tail, cells, comparator);
+        if (sorted.length == 0) {
+            return tail;
+        }
+
+        int[] merged = new int[rows];
+        int left = 0;
+        int right = 0;
+        int out = 0;
+        while (left < sorted.length && right < tailLength) {
+            // on ties the older row goes first
+            if (comparator.compare(cells[sorted[left]], cells[tail[right]]) <= 0) {
+                merged[out++] = sorted[left++];
+            } else {
+                merged[out++] = tail[right++];
+            }
+        }
+        System.arraycopy(sorted, left, merged, out, sorted.length - left);
+        System.arraycopy(tail, right, merged, out + sorted.length - left, tailLength - right);
+        return merged;
+    }
+
+    private static void sort(int[] rows, String[] cells, Comparator<String> comparator) {
+        if (rows.length < 2) {
+            return;
+        }
+        int[] buffer = rows.clone();
+        mergeSort(buffer, rows, 0, rows.length, cells, comparator);
+    }
+
+    // sorts source[from, to) into target, both start out with the same contents
+    private static void mergeSort(int[] source, int[] target, int from, int to, String[] cells, Comparator<String> comparator) {
+        int length = to - from;
+        if (length < 16) {
+            for (int i = from + 1; i < to; i++) {
+                int row = target[i];
+                int j = i;
+                while (j > from && comparator.compare(cells[target[j - 1]], cells[row]) > 0) {
+                    target[j] = target[j - 1];
+                    j--;
+                }
+                target[j] = row;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(target, source, from, middle, cells, comparator);
+        mergeSort(target, source, middle, to, cells, comparator);
+
+        int left = from;
+        int right = middle;
+        for (int out = from; out < to; out++) {
+            if (right >= to || left < middle && comparator.compare(cells[source[left]], cells[source[right]]) <= 0) {
+                target[out] = source[left++];
+            } else {
+                target[out] = source[right++];
+            }
+        }
+    }
+}
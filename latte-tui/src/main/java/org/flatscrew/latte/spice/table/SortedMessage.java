@@ -0,0 +1,12 @@
+package org.flatscrew.latte.spice.table;
+
+import org.flatscrew.latte.Message;
+
+/**
+ * Delivers the row order a table computed in the background. Pass it on to the table's update.
+ */
+public record SortedMessage(
+        int id,
+        int generation,
+        int[] order) implements Message {
+}
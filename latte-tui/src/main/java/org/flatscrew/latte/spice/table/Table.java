@@ -0,0 +1,373 @@
+package org.flatscrew.latte.spice.table;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Frame;
+import org.flatscrew.latte.FrameModel;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.UpdateResult;
+import org.flatscrew.latte.command.Tick;
+import org.flatscrew.latte.cream.Style;
+import org.flatscrew.latte.cream.TextWidth;
+import org.flatscrew.latte.message.KeyPress;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A table for large numbers of rows that keep coming in. Cells are stored column by column,
+ * column widths grow as rows are appended instead of being measured again for every frame, and
+ * only the rows on screen are rendered.
+ * <p>
+ * Sorting runs as a command on another thread; the table keeps its current order until the new
+ * one arrives in a {@link SortedMessage}, and the selection stays on the same row when it does.
+ * Rows appended to a sorted table are shown at the end at first, and merged into the order in the
+ * background by the table's updates: right away once they make up a quarter of the sorted rows,
+ * otherwise at most once a second, so a steady stream of rows doesn't keep a core busy merging.
+ * All other methods have to be called from the program's event loop, e.g. appending rows from the
+ * parent model's update.
+ * <p>
+ * Keys: up/down or k/j move, page up/page down move by a page, home/end or g/G jump to the first
+ * and last row.
+ */
+public class Table implements FrameModel {
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final int DEFAULT_HEIGHT = 10;
+    private static final String CELL_SEPARATOR = " ";
+    private static final Duration MERGE_INTERVAL = Duration.ofSeconds(1);
+    // merging costs as much as all rows, waiting for a tail this big makes it a constant per row
+    private static final int MERGE_FRACTION = 4;
+
+    private final int id = NEXT_ID.incrementAndGet();
+    private final Column[] columns;
+    private final ColumnStore store;
+    private final int[] widths;
+    private Style headerStyle = new Style();
+    private Style cellStyle = new Style();
+    private Style selectedStyle = new Style();
+    private int height = DEFAULT_HEIGHT;
+    private int cursor;
+    private int offset;
+
+    private String header;
+    private int sortColumn = -1;
+    private boolean descending;
+    // rows in display order, rows past its end are shown in the order they came in
+    private int[] order;
+    private int sortGeneration;
+    private boolean sorting;
+    private long lastMergeNanos;
+    private boolean mergeScheduled;
+
+    public Table(List<Column> columns) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("A table needs at least one column");
+        }
+        this.columns = columns.toArray(Column[]::new);
+        this.store = new ColumnStore(this.columns.length);
+        this.widths = new int[this.columns.length];
+        resetWidths();
+    }
+
+    public Table headerStyle(Style headerStyle) {
+        this.headerStyle = headerStyle;
+        this.header = null;
+        return this;
+    }
+
+    public Table cellStyle(Style cellStyle) {
+        this.cellStyle = cellStyle;
+        return this;
+    }
+
+    public Table selectedStyle(Style selectedStyle) {
+        this.selectedStyle = selectedStyle;
+        return this;
+    }
+
+    /**
+     * Sets how many rows are shown below the header.
+     */
+    public Table height(int height) {
+        this.height = Math.max(height, 1);
+        scrollToCursor();
+        return this;
+    }
+
+    /**
+     * Appends a row, one cell per column.
+     */
+    public void append(String... cells) {
+        if (cells.length != columns.length) {
+            throw new IllegalArgumentException(
+                    "Expected %d cells, got %d".formatted(columns.length, cells.length));
+        }
+        store.append(cells);
+        for (int column = 0; column < columns.length; column++) {
+            if (columns[column].width() == 0 && cells[column] != null) {
+                int width = TextWidth.width(cells[column]);
+                if (width > widths[column]) {
+                    widths[column] = width;
+                    header = null;
+                }
+            }
+        }
+    }
+
+    public void appendAll(List<String[]> rows) {
+        for (String[] row : rows) {
+            append(row);
+        }
+    }
+
+    /**
+     * Removes all rows. The table stays sorted by the same column.
+     */
+    public void clear() {
+        store.clear();
+        resetWidths();
+        order = sortColumn >= 0 ? new int[0] : null;
+        sortGeneration++;
+        sorting = false;
+        cursor = 0;
+        offset = 0;
+    }
+
+    /**
+     * Sorts the table by a column. Returns the command doing it, which the parent model has to
+     * return from its update.
+     */
+    public Command sortBy(int column, boolean descending) {
+        if (column < 0 || column >= columns.length) {
+            throw new IndexOutOfBoundsException("No column " + column);
+        }
+        this.sortColumn = column;
+        this.descending = descending;
+        sortGeneration++;
+        return sort(new int[0]);
+    }
+
+    /**
+     * Goes back to showing rows in the order they came in.
+     */
+    public void unsorted() {
+        sortColumn = -1;
+        swapOrder(null);
+        sortGeneration++;
+        sorting = false;
+    }
+
+    private Command sort(int[] sorted) {
+        sorting = true;
+        lastMergeNanos = System.nanoTime();
+        int tableId = id;
+        int generation = sortGeneration;
+        int rows = store.rows();
+        String[] cells = store.column(sortColumn);
+        Comparator<String> comparator = descending
+                ? columns[sortColumn].comparator().reversed()
+                : columns[sortColumn].comparator();
+        return () -> new SortedMessage(tableId, generation, RowOrder.merge(sorted, cells, rows, comparator));
+    }
+
+    public int rows() {
+        return store.rows();
+    }
+
+    public int cursor() {
+        return cursor;
+    }
+
+    public String cell(int position, int column) {
+        return store.get(row(position), column);
+    }
+
+    /**
+     * The cells of the row under the cursor, {@code null} if the table is empty.
+     */
+    public String[] selectedRow() {
+        if (store.rows() == 0) {
+            return null;
+        }
+        String[] cells = new String[columns.length];
+        for (int column = 0; column < columns.length; column++) {
+            cells[column] = cell(cursor, column);
+        }
+        return cells;
+    }
+
+    public void moveUp() {
+        jump(cursor - 1);
+    }
+
+    public void moveDown() {
+        jump(cursor + 1);
+    }
+
+    public void pageUp() {
+        jump(cursor - height);
+    }
+
+    public void pageDown() {
+        jump(cursor + height);
+    }
+
+    public void home() {
+        jump(0);
+    }
+
+    public void end() {
+        jump(store.rows() - 1);
+    }
+
+    private void jump(int position) {
+        cursor = Math.max(Math.min(position, store.rows() - 1), 0);
+        scrollToCursor();
+    }
+
+    private void scrollToCursor() {
+        if (cursor < offset) {
+            offset = cursor;
+        } else if (cursor >= offset + height) {
+            offset = cursor - height + 1;
+        }
+        offset = Math.max(Math.min(offset, store.rows() - height), 0);
+    }
+
+    @Override
+    public Command init() {
+        return null;
+    }
+
+    @Override
+    public UpdateResult<? extends FrameModel> update(Message msg) {
+        if (msg instanceof SortedMessage sortedMessage) {
+            if (sortedMessage.id() != id || sortedMessage.generation() != sortGeneration) {
+                return UpdateResult.from(this);
+            }
+            swapOrder(sortedMessage.order());
+            sorting = false;
+        } else if (msg instanceof MergeMessage mergeMessage) {
+            if (mergeMessage.id() != id) {
+                return UpdateResult.from(this);
+            }
+            mergeScheduled = false;
+        } else if (msg instanceof KeyPress keyPress) {
+            switch (keyPress.type()) {
+                case UP -> moveUp();
+                case DOWN -> moveDown();
+                case PAGE_UP -> pageUp();
+                case PAGE_DOWN -> pageDown();
+                case HOME -> home();
+                case END -> end();
+                case RUNE -> {
+                    switch (keyPress.key()) {
+                        case 'k' -> moveUp();
+                        case 'j' -> moveDown();
+                        case 'g' -> home();
+                        case 'G' -> end();
+                        default -> {
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        return UpdateResult.from(this, mergeAppended());
+    }
+
+    // merges the rows appended since the last sort, or schedules it for when it's due
+    private Command mergeAppended() {
+        if (order == null || sorting || order.length >= store.rows()) {
+            return null;
+        }
+        long sinceLastMerge = System.nanoTime() - lastMergeNanos;
+        if (store.rows() - order.length >= order.length / MERGE_FRACTION || sinceLastMerge >= MERGE_INTERVAL.toNanos()) {
+            return sort(order);
+        }
+        if (mergeScheduled) {
+            return null;
+        }
+        mergeScheduled = true;
+        int tableId = id;
+        return Tick.tick(MERGE_INTERVAL.minusNanos(sinceLastMerge), time -> new MergeMessage(time, tableId));
+    }
+
+    // keeps the cursor on the row it was on, at the same place on screen
+    private void swapOrder(int[] newOrder) {
+        if (store.rows() == 0) {
+            order = newOrder;
+            return;
+        }
+        int selected = row(cursor);
+        int shownAt = cursor - offset;
+        order = newOrder;
+        cursor = position(selected);
+        offset = cursor - shownAt;
+        scrollToCursor();
+    }
+
+    private int position(int row) {
+        if (order != null && row < order.length) {
+            for (int position = 0; position < order.length; position++) {
+                if (order[position] == row) {
+                    return position;
+                }
+            }
+        }
+        // rows past the order are shown in the order they came in
+        return row;
+    }
+
+    @Override
+    public void view(Frame frame) {
+        if (header == null) {
+            StringBuilder line = new StringBuilder();
+            for (int column = 0; column < columns.length; column++) {
+                appendCell(line, columns[column].title(), column);
+            }
+            header = headerStyle.render(line.toString());
+        }
+        frame.add(header);
+
+        int end = Math.min(offset + height, store.rows());
+        StringBuilder line = new StringBuilder();
+        for (int position = offset; position < end; position++) {
+            line.setLength(0);
+            int row = row(position);
+            for (int column = 0; column < columns.length; column++) {
+                appendCell(line, store.get(row, column), column);
+            }
+            Style style = position == cursor ? selectedStyle : cellStyle;
+            frame.add(style.render(new StringBuilder(line.length() + 16), line));
+        }
+    }
+
+    private int row(int position) {
+        return order != null && position < order.length ? order[position] : position;
+    }
+
+    private void appendCell(StringBuilder line, String text, int column) {
+        if (column > 0) {
+            line.append(CELL_SEPARATOR);
+        }
+        int width = widths[column];
+        int end = TextWidth.truncate(text, 0, text.length(), width);
+        line.append(text, 0, end);
+        for (int padding = width - TextWidth.width(text, 0, end); padding > 0; padding--) {
+            line.append(' ');
+        }
+    }
+
+    private void resetWidths() {
+        for (int column = 0; column < columns.length; column++) {
+            Column definition = columns[column];
+            widths[column] = definition.width() > 0 ? definition.width() : TextWidth.width(definition.title());
+        }
+        header = null;
+    }
+}
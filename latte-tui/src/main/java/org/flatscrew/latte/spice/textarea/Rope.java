@@ -0,0 +1,266 @@
+package org.flatscrew.latte.spice.textarea;
+
+/**
+ * An immutable string made of short chunks held in a balanced tree. Inserting and deleting build
+ * a new rope sharing all but a path of the old one, so edits cost the same however long the text
+ * is. Every node counts the line breaks below it, so lines are found without scanning the text.
+ */
+final class Rope {
+
+    private static final int LEAF_SIZE = 512;
+
+    static final Rope EMPTY = new Rope("");
+
+    private final Rope left;
+    private final Rope right;
+    private final String text;
+    private final int length;
+    private final int newlines;
+    private final int height;
+
+    private Rope(String text) {
+        this.left = null;
+        this.right = null;
+        this.text = text;
+        this.length = text.length();
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        this.newlines = count;
+        this.height = 0;
+    }
+
+    private Rope(Rope left, Rope right) {
+        this.left = left;
+        this.right = right;
+        this.text = null;
+        this.length = left.length + right.length;
+        this.newlines = left.newlines + right.newlines;
+        this.height = Math.max(left.height, right.height) + 1;
+    }
+
+    static Rope of(CharSequence text) {
+        if (text.isEmpty()) {
+            return EMPTY;
+        }
+        return build(text, 0, text.length());
+    }
+
+    private static Rope build(CharSequence text, int from, int to) {
+        if (to - from <= LEAF_SIZE) {
+            return new Rope(text.subSequence(from, to).toString());
+        }
+        int leaves = (to - from + LEAF_SIZE - 1) / LEAF_SIZE;
+        int middle = from + leaves / 2 * LEAF_SIZE;
+        return new Rope(build(text, from, middle), build(text, middle, to));
+    }
+
+    int length() {
+        return length;
+    }
+
+    /**
+     * Number of line breaks, one less than the number of lines.
+     */
+    int newlines() {
+        return newlines;
+    }
+
+    private boolean isLeaf() {
+        return text != null;
+    }
+
+    char charAt(int index) {
+        Rope node = this;
+        while (!node.isLeaf()) {
+            if (index < node.left.length) {
+                node = node.left;
+            } else {
+                index -= node.left.length;
+                node = node.right;
+            }
+        }
+        return node.text.charAt(index);
+    }
+
+    Rope insert(int index, CharSequence inserted) {
+        if (inserted.isEmpty()) {
+            return this;
+        }
+        return concat(concat(prefix(index), of(inserted)), suffix(index));
+    }
+
+    Rope delete(int from, int to) {
+        if (from >= to) {
+            return this;
+        }
+        return concat(prefix(from), suffix(to));
+    }
+
+    private Rope prefix(int end) {
+        if (end <= 0) {
+            return EMPTY;
+        }
+        if (end >= length) {
+            return this;
+        }
+        if (isLeaf()) {
+            return new Rope(text.substring(0, end));
+        }
+        if (end <= left.length) {
+            return left.prefix(end);
+        }
+        return concat(left, right.prefix(end - left.length));
+    }
+
+    private Rope suffix(int start) {
+        if (start <= 0) {
+            return this;
+        }
+        if (start >= length) {
+            return EMPTY;
+        }
+        if (isLeaf()) {
+            return new Rope(text.substring(start));
+        }
+        if (start >= left.length) {
+            return right.suffix(start - left.length);
+        }
+        return concat(left.suffix(start), right);
+    }
+
+    // joins two ropes keeping the tree balanced like an AVL tree, and small neighbours in one leaf
+    private static Rope concat(Rope a, Rope b) {
+        if (a.length == 0) {
+            return b;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+        if (a.isLeaf() && b.isLeaf() && a.length + b.length <= LEAF_SIZE) {
+            return new Rope(a.text + b.text);
+        }
+        if (a.height > b.height + 1) {
+            return balance(a.left, concat(a.right, b));
+        }
+        if (b.height > a.height + 1) {
+            return balance(concat(a, b.left), b.right);
+        }
+        return new Rope(a, b);
+    }
+
+    private static Rope balance(Rope left, Rope right) {
+        if (left.height > right.height + 1) {
+            if (left.left.height >= left.right.height) {
+                return new Rope(left.left, new Rope(left.right, right));
+            }
+            return new Rope(new Rope(left.left, left.right.left), new Rope(left.right.right, right));
+        }
+        if (right.height > left.height + 1) {
+            if (right.right.height >= right.left.height) {
+                return new Rope(new Rope(left, right.left), right.right);
+            }
+            return new Rope(new Rope(left, right.left.left), new Rope(right.left.right, right.right));
+        }
+        return new Rope(left, right);
+    }
+
+    /**
+     * Where the given line starts, counting from 0.
+     */
+    int lineStart(int line) {
+        if (line <= 0) {
+            return 0;
+        }
+        Rope node = this;
+        int offset = 0;
+        while (!node.isLeaf()) {
+            if (line <= node.left.newlines) {
+                node = node.left;
+            } else {
+                line -= node.left.newlines;
+                offset += node.left.length;
+                node = node.right;
+            }
+        }
+        for (int i = 0; i < node.length; i++) {
+            if (node.text.charAt(i) == '\n' && --line == 0) {
+                return offset + i + 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Where the given line ends, before its line break.
+     */
+    int lineEnd(int line) {
+        return line < newlines ? lineStart(line + 1) - 1 : length;
+    }
+
+    /**
+     * The line the given index is on.
+     */
+    int lineOf(int index) {
+        Rope node = this;
+        int line = 0;
+        while (!node.isLeaf()) {
+            if (index <= node.left.length) {
+                node = node.left;
+            } else {
+                index -= node.left.length;
+                line += node.left.newlines;
+                node = node.right;
+            }
+        }
+        for (int i = 0; i < index; i++) {
+            if (node.text.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    StringBuilder appendTo(StringBuilder out, int from, int to) {
+        if (from >= to) {
+            return out;
+        }
+        if (isLeaf()) {
+            return out.append(text, from, to);
+        }
+        if (from < left.length) {
+            left.appendTo(out, from, Math.min(to, left.length));
+        }
+        if (to > left.length) {
+            right.appendTo(out, Math.max(from - left.length, 0), to - left.length);
+        }
+        return out;
+    }
+
+    /**
+     * Whether every node's subtrees differ in height by at most one and its counts add up.
+     */
+    boolean isBalanced() {
+        if (isLeaf()) {
+            return height == 0;
+        }
+        return Math.abs(left.height - right.height) <= 1
+                && height == Math.max(left.height, right.height) + 1
+                && length == left.length + right.length
+                && newlines == left.newlines + right.newlines
+                && left.isBalanced()
+                && right.isBalanced();
+    }
+
+    String substring(int from, int to) {
+        return appendTo(new StringBuilder(to - from), from, to).toString();
+    }
+
+    @Override
+    public String toString() {
+        return substring(0, length);
+    }
+}
@@ -0,0 +1,676 @@
+package org.flatscrew.latte.spice.textarea;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Frame;
+import org.flatscrew.latte.FrameModel;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.UpdateResult;
+import org.flatscrew.latte.cream.Color;
+import org.flatscrew.latte.cream.Style;
+import org.flatscrew.latte.cream.TextWidth;
+import org.flatscrew.latte.message.KeyPress;
+import org.flatscrew.latte.message.PasteMessage;
+
+import java.util.Arrays;
+
+/**
+ * A multi-line text editor. The text is kept in a rope, so an edit costs the same at any place
+ * in a long text, and lines are wrapped to the width of the area only when they are shown. Wrapped
+ * lines are remembered; an edit within a line wraps it again only from the row before the edit
+ * until the rows line up with the ones before, so typing into a long paragraph costs a few rows.
+ * One column is kept free for the cursor at the end of a row.
+ * <p>
+ * Keys: arrows move, with ctrl or alt left/right move by a word, and shift selects; home/end or
+ * ctrl+a/ctrl+e jump to the start and the end of the line, with ctrl to the start and the end of
+ * the text; page up/page down move by the height of the area; backspace/delete or ctrl+d delete,
+ * ctrl+w deletes the word before the cursor, ctrl+u and ctrl+k the rest of the line before and
+ * after it. Pasted text is inserted as a single edit.
+ */
+public class TextArea implements FrameModel {
+
+    private static final int CTRL_A = 1;
+    private static final int CTRL_B = 2;
+    private static final int CTRL_D = 4;
+    private static final int CTRL_E = 5;
+    private static final int CTRL_F = 6;
+    private static final int CTRL_K = 11;
+    private static final int CTRL_N = 14;
+    private static final int CTRL_P = 16;
+    private static final int CTRL_U = 21;
+    private static final int CTRL_W = 23;
+    private static final int DEFAULT_HEIGHT = 6;
+    private static final String TAB = "    ";
+    private static final int[] SINGLE_ROW = {0};
+
+    private Rope text = Rope.EMPTY;
+    private final WrapCache wraps = new WrapCache();
+    private int cursor;
+    // the other end of the selection, -1 when nothing is selected
+    private int anchor = -1;
+    // column kept while moving up and down across shorter rows, -1 when not moving vertically
+    private int preferredColumn = -1;
+    // first row shown, as a line and a row of that line
+    private int topLine;
+    private int topRow;
+    private boolean focused = true;
+
+    private int width;
+    private int height = DEFAULT_HEIGHT;
+    private Style textStyle = new Style();
+    private Style cursorStyle = new Style().foreground(new Color(0)).background(new Color(7));
+    private Style selectionStyle = new Style().background(new Color(8));
+
+    public TextArea() {
+        wraps.reset(1);
+    }
+
+    /**
+     * Sets how many columns the area takes, lines are wrapped to fit. 0 doesn't wrap.
+     */
+    public TextArea width(int width) {
+        if (width != this.width) {
+            this.width = Math.max(width, 0);
+            wraps.reset(text.newlines() + 1);
+            topRow = 0;
+        }
+        return this;
+    }
+
+    public TextArea height(int height) {
+        this.height = Math.max(height, 1);
+        return this;
+    }
+
+    public TextArea textStyle(Style textStyle) {
+        this.textStyle = textStyle;
+        return this;
+    }
+
+    public TextArea cursorStyle(Style cursorStyle) {
+        this.cursorStyle = cursorStyle;
+        return this;
+    }
+
+    public TextArea selectionStyle(Style selectionStyle) {
+        this.selectionStyle = selectionStyle;
+        return this;
+    }
+
+    /**
+     * Lets the area take keys and shows its cursor.
+     */
+    public TextArea focus() {
+        this.focused = true;
+        return this;
+    }
+
+    public TextArea blur() {
+        this.focused = false;
+        return this;
+    }
+
+    public boolean isFocused() {
+        return focused;
+    }
+
+    public String value() {
+        return text.toString();
+    }
+
+    /**
+     * Replaces the text, putting the cursor at its end.
+     */
+    public TextArea value(String value) {
+        text = Rope.of(normalize(value));
+        wraps.reset(text.newlines() + 1);
+        cursor = text.length();
+        anchor = -1;
+        preferredColumn = -1;
+        topLine = 0;
+        topRow = 0;
+        return this;
+    }
+
+    public int length() {
+        return text.length();
+    }
+
+    public int lineCount() {
+        return text.newlines() + 1;
+    }
+
+    public int cursor() {
+        return cursor;
+    }
+
+    public void cursor(int position) {
+        move(Math.max(Math.min(position, text.length()), 0), false);
+    }
+
+    /**
+     * The line the cursor is on, counting from 0.
+     */
+    public int cursorLine() {
+        return text.lineOf(cursor);
+    }
+
+    public String selectedText() {
+        return anchor < 0 ? "" : text.substring(selectionStart(), selectionEnd());
+    }
+
+    public void selectAll() {
+        anchor = 0;
+        cursor = text.length();
+        preferredColumn = -1;
+    }
+
+    /**
+     * Inserts text at the cursor as a single edit, replacing the selection.
+     */
+    public void insert(CharSequence inserted) {
+        deleteSelection();
+        String normalized = normalize(inserted);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        int added = 0;
+        for (int i = 0; i < normalized.length(); i++) {
+            if (normalized.charAt(i) == '\n') {
+                added++;
+            }
+        }
+        int line = text.lineOf(cursor);
+        int[] wrapped = added == 0 ? wraps.get(line) : null;
+        int offset = cursor - text.lineStart(line);
+        wraps.replaced(line, 0, added);
+        text = text.insert(cursor, normalized);
+        cursor += normalized.length();
+        preferredColumn = -1;
+        if (wrapped != null) {
+            wraps.put(line, rewrap(line, wrapped, offset, offset + normalized.length(), normalized.length()));
+        }
+    }
+
+    private static String normalize(CharSequence text) {
+        StringBuilder normalized = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\r' || c == '\t') {
+                if (normalized == null) {
+                    normalized = new StringBuilder(text.length() + TAB.length()).append(text, 0, i);
+                }
+                if (c == '\t') {
+                    normalized.append(TAB);
+                } else if (i + 1 >= text.length() || text.charAt(i + 1) != '\n') {
+                    normalized.append('\n');
+                }
+            } else if (normalized != null) {
+                normalized.append(c);
+            }
+        }
+        return normalized != null ? normalized.toString() : text.toString();
+    }
+
+    @Override
+    public Command init() {
+        return null;
+    }
+
+    @Override
+    public UpdateResult<? extends FrameModel> update(Message msg) {
+        if (!focused) {
+            return UpdateResult.from(this);
+        }
+        if (msg instanceof PasteMessage paste) {
+            insert(paste.text());
+        } else if (msg instanceof KeyPress key) {
+            boolean word = key.ctrl() || key.alt();
+            switch (key.type()) {
+                case RUNE -> insert(Character.toString(key.key()));
+                case ENTER -> insert("\n");
+                case LEFT -> {
+                    if (anchor >= 0 && !key.shift() && !word) {
+                        // drops the selection, leaving the cursor at its start
+                        cursor(selectionStart());
+                    } else {
+                        move(word ? previousWord(cursor) : previousChar(cursor), key.shift());
+                    }
+                }
+                case RIGHT -> {
+                    if (anchor >= 0 && !key.shift() && !word) {
+                        cursor(selectionEnd());
+                    } else {
+                        move(word ? nextWord(cursor) : nextChar(cursor), key.shift());
+                    }
+                }
+                case UP -> moveRows(-1, key.shift());
+                case DOWN -> moveRows(1, key.shift());
+                case PAGE_UP -> moveRows(-height, key.shift());
+                case PAGE_DOWN -> moveRows(height, key.shift());
+                case HOME -> move(key.ctrl() ? 0 : text.lineStart(text.lineOf(cursor)), key.shift());
+                case END -> move(key.ctrl() ? text.length() : text.lineEnd(text.lineOf(cursor)), key.shift());
+                case BACKSPACE -> {
+                    if (!deleteSelection()) {
+                        delete(word ? previousWord(cursor) : previousChar(cursor), cursor);
+                    }
+                }
+                case DELETE -> {
+                    if (!deleteSelection()) {
+                        delete(cursor, word ? nextWord(cursor) : nextChar(cursor));
+                    }
+                }
+                case CONTROL -> control(key.key());
+                default -> {
+                }
+            }
+        }
+        return UpdateResult.from(this);
+    }
+
+    private void control(int key) {
+        int line = text.lineOf(cursor);
+        switch (key) {
+            case CTRL_A -> move(text.lineStart(line), false);
+            case CTRL_E -> move(text.lineEnd(line), false);
+            case CTRL_B -> move(previousChar(cursor), false);
+            case CTRL_F -> move(nextChar(cursor), false);
+            case CTRL_P -> moveRows(-1, false);
+            case CTRL_N -> moveRows(1, false);
+            case CTRL_D -> {
+                if (!deleteSelection()) {
+                    delete(cursor, nextChar(cursor));
+                }
+            }
+            case CTRL_W -> {
+                if (!deleteSelection()) {
+                    delete(previousWord(cursor), cursor);
+                }
+            }
+            case CTRL_U -> delete(text.lineStart(line), cursor);
+            case CTRL_K -> {
+                int lineEnd = text.lineEnd(line);
+                // at the end of a line, joins the next one
+                delete(cursor, cursor < lineEnd ? lineEnd : nextChar(cursor));
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void move(int position, boolean select) {
+        preferredColumn = -1;
+        select(position, select);
+    }
+
+    private void select(int position, boolean select) {
+        if (!select) {
+            anchor = -1;
+        } else if (anchor < 0) {
+            anchor = cursor;
+        }
+        cursor = position;
+        if (anchor == cursor) {
+            anchor = -1;
+        }
+    }
+
+    // moves by wrapped rows, staying in the same column where the rows are long enough
+    private void moveRows(int rows, boolean select) {
+        int line = text.lineOf(cursor);
+        int lineStart = text.lineStart(line);
+        int[] starts = rows(line);
+        int row = rowOf(starts, cursor - lineStart);
+        if (preferredColumn < 0) {
+            preferredColumn = TextWidth.width(text.substring(lineStart + starts[row], cursor));
+        }
+
+        for (int step = 0; step < Math.abs(rows); step++) {
+            if (rows > 0 && row + 1 < starts.length) {
+                row++;
+            } else if (rows > 0 && line < text.newlines()) {
+                line++;
+                starts = rows(line);
+                row = 0;
+            } else if (rows < 0 && row > 0) {
+                row--;
+            } else if (rows < 0 && line > 0) {
+                line--;
+                starts = rows(line);
+                row = starts.length - 1;
+            } else {
+                // past the first or the last row
+                int column = preferredColumn;
+                select(rows < 0 ? 0 : text.length(), select);
+                preferredColumn = column;
+                return;
+            }
+        }
+
+        lineStart = text.lineStart(line);
+        int rowStart = lineStart + starts[row];
+        // the last position on a wrapped row is its last character, the one after starts the next row
+        int rowEnd = row + 1 < starts.length ? lineStart + starts[row + 1] - 1 : text.lineEnd(line);
+        String rowText = text.substring(rowStart, rowEnd);
+        int index = 0;
+        int column = 0;
+        while (index < rowText.length()) {
+            int codePoint = rowText.codePointAt(index);
+            int charWidth = TextWidth.codePointWidth(codePoint);
+            if (column + charWidth > preferredColumn) {
+                break;
+            }
+            column += charWidth;
+            index += Character.charCount(codePoint);
+        }
+        select(rowStart + index, select);
+    }
+
+    private boolean deleteSelection() {
+        if (anchor < 0) {
+            return false;
+        }
+        int start = selectionStart();
+        int end = selectionEnd();
+        anchor = -1;
+        delete(start, end);
+        return true;
+    }
+
+    private void delete(int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = text.lineOf(from);
+        int removed = text.lineOf(to) - first;
+        int[] wrapped = removed == 0 ? wraps.get(first) : null;
+        int offset = from - text.lineStart(first);
+        wraps.replaced(first, removed, 0);
+        text = text.delete(from, to);
+        cursor = from;
+        anchor = -1;
+        preferredColumn = -1;
+        if (wrapped != null) {
+            wraps.put(first, rewrap(first, wrapped, offset, offset, from - to));
+        }
+    }
+
+    private int selectionStart() {
+        return Math.min(anchor, cursor);
+    }
+
+    private int selectionEnd() {
+        return Math.max(anchor, cursor);
+    }
+
+    private int previousChar(int position) {
+        if (position <= 0) {
+            return 0;
+        }
+        position--;
+        if (position > 0 && Character.isLowSurrogate(text.charAt(position))
+                && Character.isHighSurrogate(text.charAt(position - 1))) {
+            position--;
+        }
+        return position;
+    }
+
+    private int nextChar(int position) {
+        int length = text.length();
+        if (position >= length) {
+            return length;
+        }
+        position++;
+        if (position < length && Character.isLowSurrogate(text.charAt(position))
+                && Character.isHighSurrogate(text.charAt(position - 1))) {
+            position++;
+        }
+        return position;
+    }
+
+    private int previousWord(int position) {
+        while (position > 0 && Character.isWhitespace(text.charAt(position - 1))) {
+            position--;
+        }
+        while (position > 0 && !Character.isWhitespace(text.charAt(position - 1))) {
+            position--;
+        }
+        return position;
+    }
+
+    private int nextWord(int position) {
+        int length = text.length();
+        while (position < length && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        while (position < length && !Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    int[] rows(int line) {
+        int[] starts = wraps.get(line);
+        if (starts == null) {
+            starts = wrap(text.substring(text.lineStart(line), text.lineEnd(line)));
+            wraps.put(line, starts);
+        }
+        return starts;
+    }
+
+    private static int rowOf(int[] starts, int column) {
+        int row = Arrays.binarySearch(starts, column);
+        return row >= 0 ? row : -row - 2;
+    }
+
+    private int wrapWidth() {
+        return width > 1 ? width - 1 : width;
+    }
+
+    private int[] wrap(String line) {
+        int wrapWidth = wrapWidth();
+        if (wrapWidth == 0 || line.length() <= wrapWidth / 2 || TextWidth.width(line) <= wrapWidth) {
+            return SINGLE_ROW;
+        }
+        RowStarts starts = new RowStarts();
+        starts.add(0);
+        wrapRows(line, 0, wrapWidth, starts, null, Integer.MAX_VALUE, 0);
+        return starts.toArray();
+    }
+
+    /**
+     * Wraps a line again after an edit replaced what was between {@code editFrom} and the old end of
+     * the edit with what is now up to {@code editTo}, changing its length by {@code delta}. Rows
+     * before the edit stay as they were and so do the ones after it, shifted, once a row starts
+     * where one did before. The line is read in windows from the row before the edit on, since
+     * a deletion can pull the start of the edited row back onto it.
+     */
+    private int[] rewrap(int line, int[] wrapped, int editFrom, int editTo, int delta) {
+        int wrapWidth = wrapWidth();
+        int lineStart = text.lineStart(line);
+        int lineLength = text.lineEnd(line) - lineStart;
+        if (wrapWidth == 0 || lineLength <= 4 * wrapWidth) {
+            return wrap(text.substring(lineStart, lineStart + lineLength));
+        }
+
+        int row = Math.max(rowOf(wrapped, editFrom) - 1, 0);
+        RowStarts starts = new RowStarts();
+        for (int i = 0; i <= row; i++) {
+            starts.add(wrapped[i]);
+        }
+        int window = Math.max(editTo - wrapped[row], 0) + 4 * wrapWidth;
+        while (true) {
+            int from = starts.last();
+            int to = Math.min(from + window, lineLength);
+            if (to < lineLength && Character.isHighSurrogate(text.charAt(lineStart + to - 1))) {
+                to++;
+            }
+            String chunk = text.substring(lineStart + from, lineStart + to);
+            // breaks found in a window are final, only the row the window ends in is wrapped again
+            if (wrapRows(chunk, from, wrapWidth, starts, wrapped, editTo, delta) || to == lineLength) {
+                return starts.count == 1 ? SINGLE_ROW : starts.toArray();
+            }
+            window *= 2;
+        }
+    }
+
+    /**
+     * Adds the starts of the rows following the one {@code chunk} starts with, which starts at
+     * {@code base} in the line: breaks after the last space that fits, or right at the edge within
+     * long words. With rows wrapped before an edit given, stops at the first row from
+     * {@code syncFrom} on that starts where one did before, taking the rest from there, and returns
+     * whether it did.
+     */
+    private static boolean wrapRows(CharSequence chunk, int base, int wrapWidth, RowStarts starts,
+                                    int[] wrapped, int syncFrom, int delta) {
+        int rowStart = 0;
+        int columns = 0;
+        int lastBreak = -1;
+        int index = 0;
+        while (index < chunk.length()) {
+            int codePoint = Character.codePointAt(chunk, index);
+            int charWidth = TextWidth.codePointWidth(codePoint);
+            while (columns + charWidth > wrapWidth && index > rowStart) {
+                rowStart = lastBreak > rowStart ? lastBreak : index;
+                int start = base + rowStart;
+                if (wrapped != null && start >= syncFrom) {
+                    int row = Arrays.binarySearch(wrapped, start - delta);
+                    if (row >= 0) {
+                        // the same text follows a row start as before, so do the same rows
+                        for (; row < wrapped.length; row++) {
+                            starts.add(wrapped[row] + delta);
+                        }
+                        return true;
+                    }
+                }
+                starts.add(start);
+                columns = TextWidth.width(chunk, rowStart, index);
+                lastBreak = -1;
+            }
+            columns += charWidth;
+            index += Character.charCount(codePoint);
+            if (codePoint == ' ') {
+                lastBreak = index;
+            }
+        }
+        return false;
+    }
+
+    // scrolls just far enough to show the cursor, stepping over at most a screen of rows
+    private void scrollToCursor() {
+        topLine = Math.min(topLine, text.newlines());
+        topRow = Math.min(topRow, rows(topLine).length - 1);
+        int line = text.lineOf(cursor);
+        int row = rowOf(rows(line), cursor - text.lineStart(line));
+        if (line < topLine || line == topLine && row < topRow) {
+            topLine = line;
+            topRow = row;
+            return;
+        }
+
+        int shownLine = topLine;
+        int shownRow = topRow;
+        for (int distance = 0; distance < height; distance++) {
+            if (shownLine == line && shownRow == row) {
+                return;
+            }
+            if (shownRow + 1 < rows(shownLine).length) {
+                shownRow++;
+            } else {
+                shownLine++;
+                shownRow = 0;
+            }
+        }
+
+        // below the last row shown, make it the last one
+        for (int distance = 1; distance < height; distance++) {
+            if (row > 0) {
+                row--;
+            } else if (line > 0) {
+                line--;
+                row = rows(line).length - 1;
+            } else {
+                break;
+            }
+        }
+        topLine = line;
+        topRow = row;
+    }
+
+    @Override
+    public void view(Frame frame) {
+        scrollToCursor();
+        int shown = 0;
+        int line = topLine;
+        int row = topRow;
+        while (shown < height && line <= text.newlines()) {
+            int lineStart = text.lineStart(line);
+            int lineEnd = text.lineEnd(line);
+            int[] starts = rows(line);
+            for (; row < starts.length && shown < height; row++, shown++) {
+                boolean lastRow = row + 1 == starts.length;
+                int rowEnd = lastRow ? lineEnd : lineStart + starts[row + 1];
+                frame.add(renderRow(lineStart + starts[row], rowEnd, lastRow));
+            }
+            line++;
+            row = 0;
+        }
+        for (; shown < height; shown++) {
+            frame.add("");
+        }
+    }
+
+    private StringBuilder renderRow(int from, int to, boolean lastRow) {
+        StringBuilder out = new StringBuilder();
+        String rowText = text.substring(from, to);
+        StringBuilder run = new StringBuilder();
+        Style runStyle = textStyle;
+        int index = 0;
+        while (index < rowText.length()) {
+            int next = index + Character.charCount(rowText.codePointAt(index));
+            Style style = styleAt(from + index);
+            if (style != runStyle) {
+                runStyle.render(out, run);
+                run.setLength(0);
+                runStyle = style;
+            }
+            run.append(rowText, index, next);
+            index = next;
+        }
+        runStyle.render(out, run);
+        if (focused && lastRow && cursor == to) {
+            cursorStyle.render(out, " ");
+        }
+        return out;
+    }
+
+    private static final class RowStarts {
+
+        private int[] starts = new int[8];
+        private int count;
+
+        void add(int start) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            starts[count++] = start;
+        }
+
+        int last() {
+            return starts[count - 1];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(starts, count);
+        }
+    }
+
+    private Style styleAt(int index) {
+        if (focused && index == cursor) {
+            return cursorStyle;
+        }
+        if (anchor >= 0 && index >= selectionStart() && index < selectionEnd()) {
+            return selectionStyle;
+        }
+        return textStyle;
+    }
+}
@@ -0,0 +1,59 @@
+package org.flatscrew.latte.spice.textarea;
+
+import java.util.Arrays;
+
+/**
+ * Where the wrapped rows of each line start, for the lines that have been shown. Edits only
+ * forget the lines they touched: lines after them are moved along when line breaks are added or
+ * removed, without being wrapped again.
+ */
+final class WrapCache {
+
+    private int[][] rows = new int[64][];
+    private int lines;
+
+    /**
+     * Forgets everything, e.g. when the width changes.
+     */
+    void reset(int lineCount) {
+        if (rows.length < lineCount) {
+            rows = new int[Math.max(lineCount, rows.length * 2)][];
+        } else {
+            Arrays.fill(rows, 0, lines, null);
+        }
+        lines = lineCount;
+    }
+
+    /**
+     * Row starts of a line relative to its start, {@code null} if it hasn't been wrapped yet.
+     */
+    int[] get(int line) {
+        return line < lines ? rows[line] : null;
+    }
+
+    void put(int line, int[] starts) {
+        rows[line] = starts;
+    }
+
+    /**
+     * Records an edit that turned {@code removed + 1} lines starting at {@code first} into
+     * {@code added + 1} lines.
+     */
+    void replaced(int first, int removed, int added) {
+        int newLines = lines - removed + added;
+        if (added != removed) {
+            if (rows.length < newLines) {
+                rows = Arrays.copyOf(rows, Math.max(newLines, rows.length * 2));
+            }
+            int moved = lines - (first + removed + 1);
+            if (moved > 0) {
+                System.arraycopy(rows, first + removed + 1, rows, first + added + 1, moved);
+            }
+            if (newLines < lines) {
+                Arrays.fill(rows, newLines, lines, null);
+            }
+        }
+        Arrays.fill(rows, first, Math.min(first + added + 1, newLines), null);
+        lines = newLines;
+    }
+}
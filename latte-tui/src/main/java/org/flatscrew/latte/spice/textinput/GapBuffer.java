@@ -0,0 +1,89 @@
+package org.flatscrew.latte.spice.textinput;
+
+import java.util.Arrays;
+
+/**
+ * Text with a gap at the place being edited. Inserting and deleting at the gap only moves its
+ * bounds; moving the gap copies the characters in between, so typing and deleting around the
+ * cursor costs the same however long the text is.
+ */
+final class GapBuffer implements CharSequence {
+
+    private static final int MIN_GAP = 64;
+
+    private char[] chars = new char[MIN_GAP];
+    private int gapStart;
+    private int gapEnd = MIN_GAP;
+
+    @Override
+    public int length() {
+        return chars.length - (gapEnd - gapStart);
+    }
+
+    @Override
+    public char charAt(int index) {
+        return index < gapStart ? chars[index] : chars[index + gapEnd - gapStart];
+    }
+
+    void insert(int index, CharSequence text) {
+        moveGap(index);
+        ensureGap(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            chars[gapStart++] = text.charAt(i);
+        }
+    }
+
+    void delete(int from, int to) {
+        moveGap(from);
+        gapEnd += to - from;
+    }
+
+    void clear() {
+        gapStart = 0;
+        gapEnd = chars.length;
+    }
+
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            System.arraycopy(chars, index, chars, gapEnd - count, count);
+            gapStart -= count;
+            gapEnd -= count;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            System.arraycopy(chars, gapEnd, chars, gapStart, count);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+
+    private void ensureGap(int needed) {
+        if (gapEnd - gapStart >= needed) {
+            return;
+        }
+        int length = length();
+        int capacity = Math.max(chars.length * 2, length + needed + MIN_GAP);
+        int tail = chars.length - gapEnd;
+        char[] grown = Arrays.copyOf(chars, capacity);
+        System.arraycopy(chars, gapEnd, grown, capacity - tail, tail);
+        chars = grown;
+        gapEnd = capacity - tail;
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        StringBuilder text = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            text.append(charAt(i));
+        }
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder(length())
+                .append(chars, 0, gapStart)
+                .append(chars, gapEnd, chars.length - gapEnd)
+                .toString();
+    }
+}
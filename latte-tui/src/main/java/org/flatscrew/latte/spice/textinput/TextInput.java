@@ -0,0 +1,438 @@
+package org.flatscrew.latte.spice.textinput;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.Model;
+import org.flatscrew.latte.UpdateResult;
+import org.flatscrew.latte.cream.Color;
+import org.flatscrew.latte.cream.Style;
+import org.flatscrew.latte.cream.TextWidth;
+import org.flatscrew.latte.message.KeyPress;
+import org.flatscrew.latte.message.PasteMessage;
+
+/**
+ * A single line text field. The text lives in a gap buffer, so typing and deleting cost the
+ * same however long it gets, and only the part that fits into the field's width is rendered,
+ * scrolled horizontally to keep the cursor in view.
+ * <p>
+ * Keys: left/right move by a character, with ctrl or alt by a word, and select with shift;
+ * home/end or ctrl+a/ctrl+e jump to the start and the end; backspace/delete or ctrl+d delete,
+ * ctrl+w deletes the word before the cursor, ctrl+u and ctrl+k everything before and after it.
+ * Pasted text is inserted as a whole, with line breaks turned into spaces.
+ */
+public class TextInput implements Model {
+
+    private static final int CTRL_A = 1;
+    private static final int CTRL_B = 2;
+    private static final int CTRL_D = 4;
+    private static final int CTRL_E = 5;
+    private static final int CTRL_F = 6;
+    private static final int CTRL_K = 11;
+    private static final int CTRL_U = 21;
+    private static final int CTRL_W = 23;
+    // how much of the text a field without a width shows around the cursor, wider than any terminal
+    private static final int MAX_WIDTH = 1024;
+
+    private final GapBuffer text = new GapBuffer();
+    private int cursor;
+    // the other end of the selection, -1 when nothing is selected
+    private int anchor = -1;
+    // first character shown
+    private int offset;
+    private boolean focused = true;
+
+    private String prompt = "> ";
+    private String placeholder = "";
+    private int width;
+    private int charLimit;
+    private Style promptStyle = new Style();
+    private Style textStyle = new Style();
+    private Style placeholderStyle = new Style().foreground(new Color(240));
+    private Style cursorStyle = new Style().foreground(new Color(0)).background(new Color(7));
+    private Style selectionStyle = new Style().background(new Color(8));
+
+    public TextInput prompt(String prompt) {
+        this.prompt = prompt;
+        return this;
+    }
+
+    public TextInput placeholder(String placeholder) {
+        this.placeholder = placeholder;
+        return this;
+    }
+
+    /**
+     * Sets how many columns the text takes, not counting the prompt. 0 shows as much of it as fits
+     * a very wide terminal, scrolling beyond that.
+     */
+    public TextInput width(int width) {
+        this.width = Math.max(width, 0);
+        return this;
+    }
+
+    /**
+     * Sets how many characters the field takes, 0 for no limit.
+     */
+    public TextInput charLimit(int charLimit) {
+        this.charLimit = Math.max(charLimit, 0);
+        return this;
+    }
+
+    public TextInput promptStyle(Style promptStyle) {
+        this.promptStyle = promptStyle;
+        return this;
+    }
+
+    public TextInput textStyle(Style textStyle) {
+        this.textStyle = textStyle;
+        return this;
+    }
+
+    public TextInput placeholderStyle(Style placeholderStyle) {
+        this.placeholderStyle = placeholderStyle;
+        return this;
+    }
+
+    public TextInput cursorStyle(Style cursorStyle) {
+        this.cursorStyle = cursorStyle;
+        return this;
+    }
+
+    public TextInput selectionStyle(Style selectionStyle) {
+        this.selectionStyle = selectionStyle;
+        return this;
+    }
+
+    /**
+     * Lets the field take keys and shows its cursor.
+     */
+    public TextInput focus() {
+        this.focused = true;
+        return this;
+    }
+
+    public TextInput blur() {
+        this.focused = false;
+        return this;
+    }
+
+    public boolean isFocused() {
+        return focused;
+    }
+
+    public String value() {
+        return text.toString();
+    }
+
+    /**
+     * Replaces the text, putting the cursor at its end.
+     */
+    public TextInput value(String value) {
+        text.clear();
+        anchor = -1;
+        cursor = 0;
+        offset = 0;
+        insert(value);
+        return this;
+    }
+
+    public int length() {
+        return text.length();
+    }
+
+    public int cursor() {
+        return cursor;
+    }
+
+    public void cursor(int position) {
+        anchor = -1;
+        cursor = Math.max(Math.min(position, text.length()), 0);
+    }
+
+    public String selectedText() {
+        return anchor < 0 ? "" : text.subSequence(selectionStart(), selectionEnd()).toString();
+    }
+
+    public void selectAll() {
+        anchor = 0;
+        cursor = text.length();
+    }
+
+    /**
+     * Inserts text at the cursor, replacing the selection.
+     */
+    public void insert(CharSequence inserted) {
+        deleteSelection();
+        CharSequence line = singleLine(inserted);
+        int room = charLimit > 0 ? charLimit - text.length() : line.length();
+        int length = Math.min(line.length(), Math.max(room, 0));
+        if (length < line.length() && length > 0 && Character.isHighSurrogate(line.charAt(length - 1))) {
+            length--;
+        }
+        text.insert(cursor, line.subSequence(0, length));
+        cursor += length;
+    }
+
+    private static CharSequence singleLine(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\t') {
+                StringBuilder line = new StringBuilder(text.length());
+                for (int j = 0; j < text.length(); j++) {
+                    char d = text.charAt(j);
+                    if (d == '\r' && j + 1 < text.length() && text.charAt(j + 1) == '\n') {
+                        continue;
+                    }
+                    line.append(d == '\n' || d == '\r' || d == '\t' ? ' ' : d);
+                }
+                return line;
+            }
+        }
+        return text;
+    }
+
+    @Override
+    public Command init() {
+        return null;
+    }
+
+    @Override
+    public UpdateResult<? extends Model> update(Message msg) {
+        if (!focused) {
+            return UpdateResult.from(this);
+        }
+        if (msg instanceof PasteMessage paste) {
+            insert(paste.text());
+        } else if (msg instanceof KeyPress key) {
+            boolean word = key.ctrl() || key.alt();
+            switch (key.type()) {
+                case RUNE -> insert(Character.toString(key.key()));
+                case LEFT -> {
+                    if (anchor >= 0 && !key.shift() && !word) {
+                        // drops the selection, leaving the cursor at its start
+                        cursor(selectionStart());
+                    } else {
+                        move(word ? previousWord(cursor) : previousChar(cursor), key.shift());
+                    }
+                }
+                case RIGHT -> {
+                    if (anchor >= 0 && !key.shift() && !word) {
+                        cursor(selectionEnd());
+                    } else {
+                        move(word ? nextWord(cursor) : nextChar(cursor), key.shift());
+                    }
+                }
+                case HOME -> move(0, key.shift());
+                case END -> move(text.length(), key.shift());
+                case BACKSPACE -> {
+                    if (!deleteSelection()) {
+                        delete(word ? previousWord(cursor) : previousChar(cursor), cursor);
+                    }
+                }
+                case DELETE -> {
+                    if (!deleteSelection()) {
+                        delete(cursor, word ? nextWord(cursor) : nextChar(cursor));
+                    }
+                }
+                case CONTROL -> {
+                    switch (key.key()) {
+                        case CTRL_A -> move(0, false);
+                        case CTRL_E -> move(text.length(), false);
+                        case CTRL_B -> move(previousChar(cursor), false);
+                        case CTRL_F -> move(nextChar(cursor), false);
+                        case CTRL_D -> {
+                            if (!deleteSelection()) {
+                                delete(cursor, nextChar(cursor));
+                            }
+                        }
+                        case CTRL_W -> {
+                            if (!deleteSelection()) {
+                                delete(previousWord(cursor), cursor);
+                            }
+                        }
+                        case CTRL_U -> delete(0, cursor);
+                        case CTRL_K -> delete(cursor, text.length());
+                        default -> {
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return UpdateResult.from(this);
+    }
+
+    private void move(int position, boolean select) {
+        if (!select) {
+            anchor = -1;
+        } else if (anchor < 0) {
+            anchor = cursor;
+        }
+        cursor = position;
+        if (anchor == cursor) {
+            anchor = -1;
+        }
+    }
+
+    private boolean deleteSelection() {
+        if (anchor < 0) {
+            return false;
+        }
+        int start = selectionStart();
+        int end = selectionEnd();
+        anchor = -1;
+        delete(start, end);
+        return true;
+    }
+
+    private void delete(int from, int to) {
+        if (from < to) {
+            text.delete(from, to);
+            cursor = from;
+            anchor = -1;
+        }
+    }
+
+    private int selectionStart() {
+        return Math.min(anchor, cursor);
+    }
+
+    private int selectionEnd() {
+        return Math.max(anchor, cursor);
+    }
+
+    private int previousChar(int position) {
+        if (position <= 0) {
+            return 0;
+        }
+        position--;
+        if (position > 0 && Character.isLowSurrogate(text.charAt(position))
+                && Character.isHighSurrogate(text.charAt(position - 1))) {
+            position--;
+        }
+        return position;
+    }
+
+    private int nextChar(int position) {
+        int length = text.length();
+        if (position >= length) {
+            return length;
+        }
+        position++;
+        if (position < length && Character.isLowSurrogate(text.charAt(position))
+                && Character.isHighSurrogate(text.charAt(position - 1))) {
+            position++;
+        }
+        return position;
+    }
+
+    private int previousWord(int position) {
+        while (position > 0 && Character.isWhitespace(text.charAt(position - 1))) {
+            position--;
+        }
+        while (position > 0 && !Character.isWhitespace(text.charAt(position - 1))) {
+            position--;
+        }
+        return position;
+    }
+
+    private int nextWord(int position) {
+        int length = text.length();
+        while (position < length && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        while (position < length && !Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    @Override
+    public String view() {
+        StringBuilder out = new StringBuilder();
+        promptStyle.render(out, prompt);
+        if (text.length() == 0 && !placeholder.isEmpty()) {
+            return renderPlaceholder(out).toString();
+        }
+
+        scrollToCursor();
+        int width = shownWidth();
+        int columns = 0;
+        int index = offset;
+        int length = text.length();
+        StringBuilder run = new StringBuilder();
+        Style runStyle = textStyle;
+        while (index < length) {
+            int next = nextChar(index);
+            int charWidth = TextWidth.codePointWidth(Character.codePointAt(text, index));
+            if (columns + charWidth > width) {
+                break;
+            }
+            Style style = styleAt(index);
+            if (style != runStyle) {
+                runStyle.render(out, run);
+                run.setLength(0);
+                runStyle = style;
+            }
+            run.append(text, index, next);
+            columns += charWidth;
+            index = next;
+        }
+        runStyle.render(out, run);
+        if (focused && cursor == length) {
+            cursorStyle.render(out, " ");
+        }
+        return out.toString();
+    }
+
+    private StringBuilder renderPlaceholder(StringBuilder out) {
+        String shown = placeholder;
+        if (width > 0) {
+            shown = shown.substring(0, TextWidth.truncate(shown, 0, shown.length(), width));
+        }
+        if (focused && !shown.isEmpty()) {
+            // the cursor sits on the placeholder's first character
+            int first = Character.charCount(shown.codePointAt(0));
+            cursorStyle.render(out, shown.substring(0, first));
+            return placeholderStyle.render(out, shown.substring(first));
+        }
+        return placeholderStyle.render(out, shown);
+    }
+
+    private Style styleAt(int index) {
+        if (focused && index == cursor) {
+            return cursorStyle;
+        }
+        if (anchor >= 0 && index >= selectionStart() && index < selectionEnd()) {
+            return selectionStyle;
+        }
+        return textStyle;
+    }
+
+    private int shownWidth() {
+        return width > 0 ? width : MAX_WIDTH;
+    }
+
+    // scrolls just far enough to show the cursor, measuring only what's on screen
+    private void scrollToCursor() {
+        offset = Math.min(offset, text.length());
+        int width = shownWidth();
+        if (cursor < offset) {
+            offset = cursor;
+            return;
+        }
+        // the cursor takes a column of its own at the end of the text
+        int columns = cursor < text.length() ? TextWidth.codePointWidth(Character.codePointAt(text, cursor)) : 1;
+        int start = cursor;
+        while (start > offset) {
+            int previous = previousChar(start);
+            columns += TextWidth.codePointWidth(Character.codePointAt(text, previous));
+            if (columns > width) {
+                offset = start;
+                return;
+            }
+            start = previous;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.flatscrew.latte;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CellDiffTest {
+
+    record ShowMessage(String view) implements Message {
+    }
+
+    /**
+     * Shows whatever it was last told to.
+     */
+    static class TextModel implements Model {
+
+        private String view;
+
+        TextModel(String view) {
+            this.view = view;
+        }
+
+        @Override
+        public Command init() {
+            return null;
+        }
+
+        @Override
+        public UpdateResult<? extends Model> update(Message msg) {
+            if (msg instanceof ShowMessage show) {
+                view = show.view();
+            }
+            return UpdateResult.from(this);
+        }
+
+        @Override
+        public String view() {
+            return view;
+        }
+    }
+
+    @Test
+    void skipsOscSequencesWhole() {
+        HeadlessProgram program = start("\033]0;title\007first");
+        assertEquals("first", program.screen().line(0));
+
+        show(program, "\033]8;;https://example.com\033\\link\033]8;;\033\\ and more");
+        assertEquals("link and more", program.screen().line(0));
+
+        show(program, "\033]8;;https://example.com\007link\033]8;;\007 and less");
+        assertEquals("link and less", program.screen().line(0));
+    }
+
+    @Test
+    void rewritesShortGapsBetweenChangesInOneRun() {
+        HeadlessProgram program = start("abcdefghijklmnop");
+
+        HeadlessProgram.Step close = show(program, "aXcdYfghijklmnop");
+        assertEquals("aXcdYfghijklmnop", program.screen().line(0));
+        assertTrue(close.text().contains("XcdY"), close.text());
+
+        HeadlessProgram.Step far = show(program, "abcdYfghijklmnoZ");
+        assertEquals("abcdYfghijklmnoZ", program.screen().line(0));
+        assertFalse(far.text().contains("fghijklmno"), far.text());
+    }
+
+    @Test
+    void neverSplitsWideCharacters() {
+        HeadlessProgram program = start("a漢b字c");
+
+        show(program, "a字b字c");
+        assertEquals("a字b字c", program.screen().line(0));
+
+        show(program, "axyb字c");
+        assertEquals("axyb字c", program.screen().line(0));
+
+        show(program, "ax漢字c");
+        assertEquals("ax漢字c", program.screen().line(0));
+
+        show(program, "a漢漢字c");
+        assertEquals("a漢漢字c", program.screen().line(0));
+
+        show(program, "a漢漢字c漢");
+        assertEquals("a漢漢字c漢", program.screen().line(0));
+
+        // the cursor ends up after the whole of a changed wide character
+        show(program, "字bcdefghijk");
+        show(program, "漢bcdefghijX");
+        assertEquals("漢bcdefghijX", program.screen().line(0));
+    }
+
+    @Test
+    void clearsWhatShrunkRowsAndRemovedRowsLeftBehind() {
+        HeadlessProgram program = start("first row\nsecond row\nthird row");
+
+        show(program, "first\nsecond row");
+        assertEquals("first\nsecond row", program.screen().toString());
+
+        show(program, "1");
+        assertEquals("1", program.screen().toString());
+
+        show(program, "1\n\nthree");
+        assertEquals("1\n\nthree", program.screen().toString());
+    }
+
+    @Test
+    void parsesSgrIntoCellStyles() {
+        HeadlessProgram program = start("\033[1;38;5;204mred\033[0m plain\n\033[48;2;0;0;0mx\033[m");
+        assertEquals("red plain", program.screen().line(0));
+        assertEquals("1;38;5;204", program.screen().style(0, 0));
+        assertEquals("", program.screen().style(0, 4));
+        assertEquals("48;2;0;0;0", program.screen().style(1, 0));
+
+        // same text, only the style differs
+        HeadlessProgram.Step step = show(program, "\033[32mred\033[0m plain\n\033[48;2;0;0;0mx\033[m");
+        assertEquals("red plain", program.screen().line(0));
+        assertEquals("32", program.screen().style(0, 2));
+        assertEquals("", program.screen().style(0, 4));
+        assertFalse(step.text().contains("plain"), step.text());
+    }
+
+    static HeadlessProgram start(String view) {
+        HeadlessProgram program = new HeadlessProgram(new TextModel(view), 20, 6)
+                .withRenderer(terminal -> new StandardRenderer(terminal).withCellDiffing());
+        program.start();
+        return program;
+    }
+
+    static HeadlessProgram.Step show(HeadlessProgram program, String view) {
+        program.send(new ShowMessage(view));
+        return program.step();
+    }
+}
@@ -0,0 +1,51 @@
+package org.flatscrew.latte;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandExecutorTest {
+
+    record Done(int number) implements Message {}
+
+    @Test
+    void blockPolicyNeverBlocksTheDispatchingThread() throws InterruptedException {
+        CommandExecutor executor = CommandExecutor.bounded(1, 1, CommandExecutor.QueueFullPolicy.BLOCK);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Message> messages = new CopyOnWriteArrayList<>();
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            int number = i;
+            executor.executeIfPresent(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new Done(number);
+            }, messages::add);
+        }
+        long dispatchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        release.countDown();
+
+        assertTrue(dispatchMillis < 1_000, "dispatching took " + dispatchMillis + " ms");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!executor.isIdle() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(10, messages.size());
+        assertEquals(0, executor.rejected());
+        // one worker, and the submitter keeps dispatch order
+        for (int i = 0; i < 10; i++) {
+            assertEquals(new Done(i), messages.get(i));
+        }
+        executor.shutdown();
+    }
+}
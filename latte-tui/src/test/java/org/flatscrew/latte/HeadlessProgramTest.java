@@ -0,0 +1,108 @@
+package org.flatscrew.latte;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.flatscrew.latte.message.WindowSizeMessage;
+import org.jline.terminal.Terminal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HeadlessProgramTest {
+
+    /**
+     * Five rows, showing how many window size messages came in.
+     */
+    static class RowsModel implements Model {
+
+        private int resizes;
+        private WindowSizeMessage lastSize;
+
+        @Override
+        public Command init() {
+            return null;
+        }
+
+        @Override
+        public UpdateResult<? extends Model> update(Message msg) {
+            if (msg instanceof WindowSizeMessage windowSize) {
+                resizes++;
+                lastSize = windowSize;
+            }
+            return UpdateResult.from(this);
+        }
+
+        @Override
+        public String view() {
+            StringBuilder view = new StringBuilder();
+            for (int row = 0; row < 5; row++) {
+                if (row > 0) {
+                    view.append('\n');
+                }
+                view.append("row ").append(row).append(" n=").append(resizes);
+            }
+            return view.toString();
+        }
+    }
+
+    @Test
+    void repaintsInPlaceAfterWidthChangeWithLineDiffing() {
+        assertRepaintsInPlace(StandardRenderer::new, false);
+    }
+
+    @Test
+    void repaintsInPlaceAfterWidthChangeWithCellDiffing() {
+        assertRepaintsInPlace(terminal -> new StandardRenderer(terminal).withCellDiffing(), false);
+    }
+
+    @Test
+    void repaintsInPlaceAfterWidthChangeWithCellDiffingInAltScreen() {
+        assertRepaintsInPlace(terminal -> new StandardRenderer(terminal).withCellDiffing(), true);
+    }
+
+    @Test
+    void debouncesABurstOfResizesIntoOneWindowSizeMessage() {
+        HeadlessProgram program = new HeadlessProgram(new RowsModel(), 40, 10);
+        program.start();
+        program.step();
+
+        for (int width = 41; width <= 60; width++) {
+            program.resize(width, 12);
+        }
+        program.step();
+
+        RowsModel model = (RowsModel) program.model();
+        assertEquals(2, model.resizes);
+        assertEquals(new WindowSizeMessage(60, 12), model.lastSize);
+        assertEquals(rows(2), program.screen().toString());
+    }
+
+    private static void assertRepaintsInPlace(Function<Terminal, StandardRenderer> renderer, boolean altScreen) {
+        HeadlessProgram program = new HeadlessProgram(new RowsModel(), 40, 10).withRenderer(renderer);
+        if (altScreen) {
+            program.withAltScreen();
+        }
+        program.start();
+        program.step();
+        assertEquals(rows(1), program.screen().toString());
+
+        program.resize(30, 10);
+        program.step();
+        assertEquals(rows(2), program.screen().toString());
+
+        program.resize(50, 10);
+        program.step();
+        assertEquals(rows(3), program.screen().toString());
+    }
+
+    private static String rows(int resizes) {
+        return String.join("\n", List.of(
+                "row 0 n=" + resizes,
+                "row 1 n=" + resizes,
+                "row 2 n=" + resizes,
+                "row 3 n=" + resizes,
+                "row 4 n=" + resizes));
+    }
+}
@@ -0,0 +1,140 @@
+package org.flatscrew.latte;
+
+import org.flatscrew.latte.message.KeyPress;
+import org.flatscrew.latte.message.KeyType;
+import org.flatscrew.latte.message.PasteMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputParserTest {
+
+    private final List<Message> messages = new ArrayList<>();
+    private final InputParser parser = new InputParser(messages::add);
+
+    @Test
+    void decodesCsiKeysWithModifiers() {
+        feed("\033[A\033[1;2B\033[1;3C\033[1;5D\033[1;8H\033[3~\033[5;5~\033[24;2~\033[Z");
+
+        assertEquals(List.of(
+                new KeyPress(KeyType.UP),
+                new KeyPress(KeyType.DOWN, 0, false, false, true),
+                new KeyPress(KeyType.RIGHT, 0, true, false, false),
+                new KeyPress(KeyType.LEFT, 0, false, true, false),
+                new KeyPress(KeyType.HOME, 0, true, true, true),
+                new KeyPress(KeyType.DELETE),
+                new KeyPress(KeyType.PAGE_UP, 0, false, true, false),
+                new KeyPress(KeyType.F12, 0, false, false, true),
+                new KeyPress(KeyType.TAB, '\t', false, false, true)), messages);
+    }
+
+    @Test
+    void decodesSs3Keys() {
+        feed("\033OA\033OF\033OP\033OS");
+
+        assertEquals(List.of(
+                new KeyPress(KeyType.UP),
+                new KeyPress(KeyType.END),
+                new KeyPress(KeyType.F1),
+                new KeyPress(KeyType.F4)), messages);
+    }
+
+    @Test
+    void ignoresPrivateSequences() {
+        feed("\033[<0;10;5M\033[?1;2cx");
+
+        assertEquals(List.of(new KeyPress('x')), messages);
+    }
+
+    @Test
+    void waitsForSequencesSplitAcrossReads() {
+        String input = "\033[1;5Aa\033OQ\033[15~";
+        List<Message> whole = new ArrayList<>();
+        InputParser wholeParser = new InputParser(whole::add);
+        wholeParser.feed(input.toCharArray(), 0, input.length());
+
+        for (int split = 1; split < input.length(); split++) {
+            messages.clear();
+            feed(input.substring(0, split));
+            feed(input.substring(split));
+
+            assertEquals(whole, messages, "split at " + split);
+            assertFalse(parser.isPending());
+        }
+    }
+
+    @Test
+    void flushesALoneEscapeAfterTheTimeout() {
+        feed("\033");
+        assertTrue(parser.isPending());
+        assertTrue(messages.isEmpty());
+
+        parser.flushPending();
+
+        assertEquals(List.of(new KeyPress(KeyType.ESCAPE, '\033', false, false, false)), messages);
+        assertFalse(parser.isPending());
+    }
+
+    @Test
+    void flushesAnUnfinishedSequenceAsTypedKeys() {
+        feed("\033[1");
+        parser.flushPending();
+
+        assertEquals(List.of(
+                new KeyPress(KeyType.RUNE, '[', true, false, false),
+                new KeyPress('1')), messages);
+    }
+
+    @Test
+    void readsEscapeFollowedByAKeyAsAlt() {
+        feed("\033x\033\033\r");
+
+        assertEquals(List.of(
+                new KeyPress(KeyType.RUNE, 'x', true, false, false),
+                new KeyPress(KeyType.ESCAPE, '\033', false, false, false),
+                new KeyPress(KeyType.ENTER, '\r', true, false, false)), messages);
+    }
+
+    @Test
+    void readsAltWithCharactersOutsideTheBmp() {
+        feed("\033😀");
+
+        assertEquals(List.of(new KeyPress(KeyType.RUNE, 0x1F600, true, false, false)), messages);
+    }
+
+    @Test
+    void collectsBracketedPaste() {
+        feed("a\033[200~hello\033[Aworld\n\033[201~b");
+
+        assertEquals(List.of(
+                new KeyPress('a'),
+                new PasteMessage("hello\033[Aworld\n"),
+                new KeyPress('b')), messages);
+    }
+
+    @Test
+    void collectsBracketedPasteSplitAcrossReads() {
+        String input = "\033[200~one ~ two\033[201~";
+        for (int split = 1; split < input.length(); split++) {
+            messages.clear();
+            feed(input.substring(0, split));
+            if (split >= "\033[200~".length()) {
+                // a paste isn't an escape sequence to give up on
+                parser.flushPending();
+            }
+            feed(input.substring(split));
+
+            assertEquals(List.of(new PasteMessage("one ~ two")), messages, "split at " + split);
+        }
+    }
+
+    private void feed(String input) {
+        char[] chars = input.toCharArray();
+        parser.feed(chars, 0, chars.length);
+    }
+}
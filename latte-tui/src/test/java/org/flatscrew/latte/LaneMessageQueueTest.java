@@ -0,0 +1,131 @@
+package org.flatscrew.latte;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LaneMessageQueueTest {
+
+    record Progress(String download, int percent) implements Message {}
+
+    @Test
+    void blocksSendersUntilTheEventLoopMakesRoom() throws Exception {
+        LaneMessageQueue queue = new LaneMessageQueue().lane(MessageLane.COMMAND, 2, OverflowPolicy.block());
+        queue.offer(new Progress("a", 0), MessageLane.COMMAND);
+        queue.offer(new Progress("a", 1), MessageLane.COMMAND);
+
+        CompletableFuture<Boolean> sent = offerFromAnotherThread(queue, new Progress("a", 2));
+        assertThrows(TimeoutException.class, () -> sent.get(100, TimeUnit.MILLISECONDS));
+
+        assertEquals(new Progress("a", 0), queue.take());
+        assertTrue(sent.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(new Progress("a", 1), new Progress("a", 2)), drain(queue));
+    }
+
+    @Test
+    void neverBlocksTheEventLoop() throws InterruptedException {
+        LaneMessageQueue queue = new LaneMessageQueue().lane(MessageLane.COMMAND, 1, OverflowPolicy.block());
+        // makes this thread the event loop
+        drain(queue);
+
+        queue.offer(new Progress("a", 0), MessageLane.COMMAND);
+        queue.offer(new Progress("a", 1), MessageLane.COMMAND);
+
+        assertEquals(List.of(new Progress("a", 0), new Progress("a", 1)), drain(queue));
+    }
+
+    @Test
+    void releasesBlockedSendersWhenClosed() throws Exception {
+        LaneMessageQueue queue = new LaneMessageQueue().lane(MessageLane.COMMAND, 1, OverflowPolicy.block());
+        queue.offer(new Progress("a", 0), MessageLane.COMMAND);
+
+        CompletableFuture<Boolean> sent = offerFromAnotherThread(queue, new Progress("a", 1));
+        assertThrows(TimeoutException.class, () -> sent.get(100, TimeUnit.MILLISECONDS));
+        queue.close();
+
+        assertFalse(sent.get(5, TimeUnit.SECONDS));
+        assertFalse(queue.offer(new Progress("a", 2), MessageLane.COMMAND));
+    }
+
+    @Test
+    void dropsTheOldestMessageOfAFullLane() throws InterruptedException {
+        LaneMessageQueue queue = new LaneMessageQueue().lane(MessageLane.TIMER, 2, OverflowPolicy.dropOldest());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(queue.offer(new Progress("a", i), MessageLane.TIMER));
+        }
+
+        assertEquals(List.of(new Progress("a", 3), new Progress("a", 4)), drain(queue));
+        assertEquals(3, queue.dropped(MessageLane.TIMER));
+        assertEquals(0, queue.depth(MessageLane.TIMER));
+    }
+
+    @Test
+    void coalescesMessagesWithTheSameKeyInPlace() throws InterruptedException {
+        LaneMessageQueue queue = new LaneMessageQueue().lane(MessageLane.COMMAND, 3,
+                OverflowPolicy.coalesce(message -> message instanceof Progress progress ? progress.download() : null));
+        queue.offer(new Progress("a", 10), MessageLane.COMMAND);
+        queue.offer(new Progress("b", 10), MessageLane.COMMAND);
+        queue.offer(new Progress("a", 20), MessageLane.COMMAND);
+        queue.offer(new Progress("a", 30), MessageLane.COMMAND);
+
+        assertEquals(new Progress("a", 30), queue.take());
+        // the message it would have replaced is gone, so this one queues up behind b
+        queue.offer(new Progress("a", 40), MessageLane.COMMAND);
+        queue.offer(new Progress("c", 10), MessageLane.COMMAND);
+        // full with distinct keys, the oldest goes
+        queue.offer(new Progress("d", 10), MessageLane.COMMAND);
+
+        assertEquals(List.of(new Progress("a", 40), new Progress("c", 10), new Progress("d", 10)), drain(queue));
+        assertEquals(2, queue.coalesced(MessageLane.COMMAND));
+        assertEquals(1, queue.dropped(MessageLane.COMMAND));
+    }
+
+    @Test
+    void servesLanesInOrder() throws InterruptedException {
+        LaneMessageQueue queue = new LaneMessageQueue();
+        queue.offer(new Progress("timer", 0), MessageLane.TIMER);
+        queue.offer(new Progress("command", 0), MessageLane.COMMAND);
+        queue.offer(new Progress("command", 1), MessageLane.COMMAND);
+        queue.offer(new Progress("control", 0), MessageLane.CONTROL);
+        queue.offer(new Progress("input", 0), MessageLane.INPUT);
+
+        assertEquals(new Progress("input", 0), queue.take());
+        queue.offer(new Progress("input", 1), MessageLane.INPUT);
+
+        assertEquals(List.of(
+                new Progress("input", 1),
+                new Progress("control", 0),
+                new Progress("command", 0),
+                new Progress("command", 1),
+                new Progress("timer", 0)), drain(queue));
+    }
+
+    private static CompletableFuture<Boolean> offerFromAnotherThread(LaneMessageQueue queue, Message message) {
+        CompletableFuture<Boolean> sent = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                sent.complete(queue.offer(message, MessageLane.COMMAND));
+            } catch (InterruptedException e) {
+                sent.completeExceptionally(e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return sent;
+    }
+
+    private static List<Message> drain(LaneMessageQueue queue) {
+        List<Message> messages = new ArrayList<>();
+        queue.drainTo(messages, Integer.MAX_VALUE);
+        return messages;
+    }
+}
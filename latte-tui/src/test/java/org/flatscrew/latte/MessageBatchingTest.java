@@ -0,0 +1,58 @@
+package org.flatscrew.latte;
+
+import org.flatscrew.latte.message.BatchMessage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MessageBatchingTest {
+
+    record Ping() implements Message {}
+
+    record Pong() implements Message {}
+
+    /**
+     * Answers every ping with a command sending a pong.
+     */
+    static class PingModel implements Model {
+
+        private int pongs;
+        private int batches;
+
+        @Override
+        public Command init() {
+            return null;
+        }
+
+        @Override
+        public UpdateResult<? extends Model> update(Message msg) {
+            if (msg instanceof Ping) {
+                return UpdateResult.from(this, Pong::new);
+            } else if (msg instanceof Pong) {
+                pongs++;
+            } else if (msg instanceof BatchMessage) {
+                batches++;
+            }
+            return UpdateResult.from(this);
+        }
+
+        @Override
+        public String view() {
+            return "pongs=" + pongs + " batches=" + batches;
+        }
+    }
+
+    @Test
+    void runsCommandsOfBatchedUpdatesWithoutABatchMessage() {
+        HeadlessProgram program = new HeadlessProgram(new PingModel(), 40, 5).withMessageBatching(10);
+        program.start();
+
+        program.send(new Ping());
+        program.send(new Ping());
+        program.send(new Ping());
+        HeadlessProgram.Step step = program.step();
+
+        assertEquals("pongs=3 batches=0", program.screen().line(0));
+        assertEquals(6, step.messages());
+    }
+}
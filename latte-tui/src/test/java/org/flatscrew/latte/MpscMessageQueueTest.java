@@ -0,0 +1,93 @@
+package org.flatscrew.latte;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MpscMessageQueueTest {
+
+    record Numbered(int producer, int number) implements Message {}
+
+    @Test
+    void keepsTheOrderOfEveryProducer() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        // a small lane, so producers keep running into it being full
+        MpscMessageQueue queue = new MpscMessageQueue().lane(MessageLane.COMMAND, 64);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) {
+                        queue.offer(new Numbered(producer, i), MessageLane.COMMAND);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        int[] next = new int[producers];
+        for (int i = 0; i < producers * perProducer; i++) {
+            Numbered message = (Numbered) queue.take();
+            assertEquals(next[message.producer()]++, message.number(), "producer " + message.producer());
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, queue.depth(MessageLane.COMMAND));
+    }
+
+    @Test
+    void servesLanesInOrder() throws InterruptedException {
+        MpscMessageQueue queue = new MpscMessageQueue();
+        queue.offer(new Numbered(0, 3), MessageLane.TIMER);
+        queue.offer(new Numbered(0, 2), MessageLane.COMMAND);
+        queue.offer(new Numbered(0, 1), MessageLane.CONTROL);
+        queue.offer(new Numbered(0, 0), MessageLane.INPUT);
+        queue.offer(new Numbered(1, 2), MessageLane.COMMAND);
+
+        assertEquals(new Numbered(0, 0), queue.take());
+        queue.offer(new Numbered(1, 0), MessageLane.INPUT);
+        List<Message> drained = new ArrayList<>();
+        assertEquals(5, queue.drainTo(drained, 10));
+
+        assertEquals(List.of(
+                new Numbered(1, 0),
+                new Numbered(0, 1),
+                new Numbered(0, 2),
+                new Numbered(1, 2),
+                new Numbered(0, 3)), drained);
+    }
+
+    @Test
+    void overflowsInOrderWhenTheEventLoopOffersToAFullLane() throws InterruptedException {
+        MpscMessageQueue queue = new MpscMessageQueue().lane(MessageLane.COMMAND, 2);
+        List<Message> drained = new ArrayList<>();
+        // makes this thread the event loop
+        assertEquals(0, queue.drainTo(drained, 1));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(queue.offer(new Numbered(0, i), MessageLane.COMMAND));
+        }
+        assertEquals(new Numbered(0, 0), queue.take());
+        // the ring has room again, but the overflow was sent first
+        assertTrue(queue.offer(new Numbered(0, 5), MessageLane.COMMAND));
+        assertTrue(queue.offer(new Numbered(0, 6), MessageLane.COMMAND));
+        assertTrue(queue.offer(new Numbered(0, 7), MessageLane.COMMAND));
+
+        assertEquals(7, queue.drainTo(drained, 10));
+        for (int i = 0; i < 7; i++) {
+            assertEquals(new Numbered(0, i + 1), drained.get(i));
+        }
+        assertEquals(0, queue.depth(MessageLane.COMMAND));
+    }
+}
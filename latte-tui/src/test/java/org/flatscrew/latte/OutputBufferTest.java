@@ -0,0 +1,36 @@
+package org.flatscrew.latte;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class OutputBufferTest {
+
+    @Test
+    void encodesUtf8ByHand() throws IOException {
+        OutputBuffer buffer = new OutputBuffer(StandardCharsets.UTF_8);
+        buffer.append(OutputBuffer.RESET_STYLE).append("a é € 😀").appendCodePoint(0x1F600);
+
+        assertArrayEquals(("\033[0ma é € 😀😀").getBytes(StandardCharsets.UTF_8), bytes(buffer));
+    }
+
+    @Test
+    void encodesInTheTerminalCharset() throws IOException {
+        Charset latin1 = StandardCharsets.ISO_8859_1;
+        OutputBuffer buffer = new OutputBuffer(latin1, 4);
+        buffer.append(OutputBuffer.RESET_STYLE).append("a é € ü").appendCodePoint('ß').csi(2, 'A');
+
+        assertArrayEquals("\033[0ma é ? üß\033[2A".getBytes(latin1), bytes(buffer));
+    }
+
+    private static byte[] bytes(OutputBuffer buffer) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        buffer.writeTo(output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,32 @@
+package org.flatscrew.latte.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickCommandTest {
+
+    @Test
+    void waitsForTheFullIntervalUnlessAligned() {
+        TickCommand tick = (TickCommand) Tick.tick(Duration.ofMillis(300), time -> null);
+
+        assertEquals(Duration.ofMillis(300), tick.delay());
+    }
+
+    @Test
+    void skipsBoundariesLessThanHalfAnIntervalAway() {
+        for (long millis : new long[]{1, 2, 3, 50, 999, 1000}) {
+            Duration interval = Duration.ofMillis(millis);
+            TickCommand tick = (TickCommand) Tick.every(interval, time -> null);
+            for (int i = 0; i < 1_000; i++) {
+                long delay = tick.delay().toMillis();
+
+                assertTrue(delay >= (millis + 1) / 2 && delay < millis + (millis + 1) / 2,
+                        "delay " + delay + " for " + interval);
+            }
+        }
+    }
+}
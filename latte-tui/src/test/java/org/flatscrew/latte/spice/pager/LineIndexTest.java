@@ -0,0 +1,81 @@
+package org.flatscrew.latte.spice.pager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LineIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsEveryLineAcrossCompactions() throws IOException {
+        Random random = new Random(7);
+        StringBuilder text = new StringBuilder();
+        for (int line = 0; line < 20_000; line++) {
+            // empty lines too, so offsets often sit right next to each other
+            text.append("x".repeat(random.nextInt(random.nextInt(8) == 0 ? 200 : 4))).append('\n');
+        }
+        text.append("no newline at the end");
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        Path path = directory.resolve("lines.txt");
+        Files.write(path, bytes);
+
+        List<Long> starts = new ArrayList<>();
+        starts.add(0L);
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                starts.add(i + 1L);
+            }
+        }
+
+        LineIndex index = new LineIndex(16);
+        try (MappedFile file = new MappedFile(path)) {
+            int compactions = 0;
+            while (index.end() < bytes.length) {
+                long from = index.end();
+                // chunk boundaries anywhere, in the middle of lines as well
+                long to = Math.min(bytes.length, from + 1 + random.nextInt(40_000));
+                int strideBefore = index.stride();
+                IndexedMessage chunk = LineIndex.scan(
+                        0, 0, file.channel(), from, to, index.newlines(), index.stride(), index.maxEntries());
+                assertNotNull(chunk);
+                assertTrue(chunk.offsets().length <= index.maxEntries());
+                index.add(chunk);
+                compactions += Integer.numberOfTrailingZeros(index.stride() / strideBefore);
+
+                assertMatches(starts, index, file, 7);
+            }
+            assertMatches(starts, index, file, 1);
+
+            assertEquals(starts.size() - 1, index.newlines());
+            assertTrue(compactions >= 8, "only " + compactions + " compactions");
+        }
+    }
+
+    private static void assertMatches(List<Long> starts, LineIndex index, MappedFile file, int step) {
+        for (int line = 0; line < starts.size(); line += step) {
+            long start = starts.get(line);
+            if (start > index.end()) {
+                assertEquals(-1, index.lineAt(start, file), "line " + line);
+                continue;
+            }
+            assertEquals(start, index.lineStart(line, file), "start of line " + line);
+            assertEquals(line, index.lineAt(start, file), "line at " + start);
+        }
+        long last = starts.get(starts.size() - 1);
+        assertEquals(last, index.lineStart(starts.size() + 100, file));
+    }
+}
@@ -0,0 +1,69 @@
+package org.flatscrew.latte.spice.pager;
+
+import org.flatscrew.latte.HeadlessProgram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PagerTest {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void countsLines() throws Exception {
+        Path path = write(directory.resolve("log.txt"), 50_000);
+        try (Pager pager = new Pager(path).pollInterval(POLL_INTERVAL)) {
+            HeadlessProgram program = new HeadlessProgram(pager, 80, 24);
+            program.start();
+
+            assertEquals(50_000, awaitLineCount(program, pager, 50_000));
+            program.quit();
+        }
+    }
+
+    @Test
+    void countsAgainAfterTheFileWasTruncatedUnderTheScanAndGrewBack() throws Exception {
+        Path path = write(directory.resolve("log.txt"), 50_000);
+        try (Pager pager = new Pager(path).pollInterval(POLL_INTERVAL)) {
+            // the pager still goes by the old size, the first scan maps pages that are gone
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(100);
+            }
+            HeadlessProgram program = new HeadlessProgram(pager, 80, 24);
+            program.start();
+
+            // grown back past the size the pager knew before the next poll
+            write(path, 80_000);
+            assertEquals(80_000, awaitLineCount(program, pager, 80_000));
+            program.quit();
+        }
+    }
+
+    private static Path write(Path path, int lines) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            text.append("line ").append(i).append('\n');
+        }
+        return Files.writeString(path, text);
+    }
+
+    private static long awaitLineCount(HeadlessProgram program, Pager pager, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (pager.lineCount() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(POLL_INTERVAL.toMillis());
+            program.step();
+        }
+        return pager.lineCount();
+    }
+}
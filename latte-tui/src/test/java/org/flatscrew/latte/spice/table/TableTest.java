@@ -0,0 +1,87 @@
+package org.flatscrew.latte.spice.table;
+
+import org.flatscrew.latte.Command;
+import org.flatscrew.latte.Message;
+import org.flatscrew.latte.command.TickCommand;
+import org.flatscrew.latte.message.KeyPress;
+import org.flatscrew.latte.message.KeyType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TableTest {
+
+    private static final KeyPress DOWN = new KeyPress(KeyType.DOWN);
+
+    @Test
+    void sortsInTheBackground() {
+        Table table = table(1_000);
+        sorted(table, table.sortBy(0, false));
+
+        for (int position = 1; position < table.rows(); position++) {
+            assertEquals(-1, Integer.signum(table.cell(position - 1, 0).compareTo(table.cell(position, 0))));
+        }
+    }
+
+    @Test
+    void mergesASmallTailOnlyOnceItIsDue() {
+        Table table = table(1_000);
+        sorted(table, table.sortBy(0, false));
+
+        table.append(key(5_000), "new");
+        Command command = table.update(DOWN).command();
+        // shown at the end until then
+        assertInstanceOf(TickCommand.class, command);
+        assertEquals("new", table.cell(1_000, 1));
+        // one merge is scheduled at a time
+        assertNull(table.update(DOWN).command());
+
+        for (int i = 0; i < 300; i++) {
+            table.append(key(5_001 + i), "new");
+        }
+        sorted(table, table.update(DOWN).command());
+        assertEquals(1_301, table.rows());
+        assertEquals(key(0), table.cell(0, 0));
+    }
+
+    @Test
+    void keepsTheSelectionOnItsRowWhenTheOrderChanges() {
+        Table table = table(100);
+        table.height(10);
+        for (int i = 0; i < 42; i++) {
+            table.moveDown();
+        }
+        String[] selected = table.selectedRow();
+
+        sorted(table, table.sortBy(0, true));
+        assertArrayEquals(selected, table.selectedRow());
+
+        table.unsorted();
+        assertArrayEquals(selected, table.selectedRow());
+        assertEquals(42, table.cursor());
+    }
+
+    // rows with keys in a scrambled order
+    private static Table table(int rows) {
+        Table table = new Table(List.of(Column.of("key"), Column.of("value")));
+        for (int i = 0; i < rows; i++) {
+            table.append(key(i * 7919 % rows), "row " + i);
+        }
+        return table;
+    }
+
+    private static String key(int key) {
+        return "%06d".formatted(key);
+    }
+
+    private static void sorted(Table table, Command sort) {
+        Message sorted = sort.execute();
+        assertInstanceOf(SortedMessage.class, sorted);
+        table.update(sorted);
+    }
+}
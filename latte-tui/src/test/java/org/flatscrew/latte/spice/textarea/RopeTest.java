@@ -0,0 +1,83 @@
+package org.flatscrew.latte.spice.textarea;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RopeTest {
+
+    @Test
+    void matchesAStringBuilderUnderRandomEdits() {
+        Random random = new Random(11);
+        StringBuilder model = new StringBuilder();
+        Rope rope = Rope.EMPTY;
+
+        for (int edit = 0; edit < 3_000; edit++) {
+            if (model.isEmpty() || random.nextInt(3) > 0) {
+                int index = random.nextInt(model.length() + 1);
+                String inserted = text(random, random.nextInt(10) == 0 ? 2_000 : 20);
+                model.insert(index, inserted);
+                rope = rope.insert(index, inserted);
+            } else {
+                int from = random.nextInt(model.length());
+                int to = Math.min(model.length(), from + random.nextInt(random.nextInt(10) == 0 ? 3_000 : 30));
+                model.delete(from, to);
+                rope = rope.delete(from, to);
+            }
+
+            assertEquals(model.length(), rope.length());
+            assertTrue(rope.isBalanced(), "unbalanced after edit " + edit);
+            if (edit % 100 == 0) {
+                assertSameText(model, rope, 31);
+            }
+        }
+        assertSameText(model, rope, 1);
+    }
+
+    @Test
+    void buildsBalancedRopesFromLongText() {
+        Random random = new Random(5);
+        for (int length : new int[]{0, 1, 511, 512, 513, 100_000}) {
+            String text = text(random, length);
+            Rope rope = Rope.of(text);
+
+            assertTrue(rope.isBalanced(), "unbalanced at " + length);
+            assertSameText(new StringBuilder(text), rope, 1);
+        }
+    }
+
+    private static void assertSameText(StringBuilder model, Rope rope, int step) {
+        String text = model.toString();
+        assertEquals(text, rope.toString());
+        for (int i = 0; i < text.length(); i += 7) {
+            assertEquals(text.charAt(i), rope.charAt(i));
+        }
+
+        int line = 0;
+        int lineStart = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i % step == 0) {
+                assertEquals(line, rope.lineOf(i), "line of " + i);
+            }
+            if (i == text.length() || text.charAt(i) == '\n') {
+                assertEquals(lineStart, rope.lineStart(line), "start of line " + line);
+                assertEquals(i, rope.lineEnd(line), "end of line " + line);
+                line++;
+                lineStart = i + 1;
+            }
+        }
+        assertEquals(line - 1, rope.newlines());
+        assertEquals(text.length(), rope.lineStart(line + 5));
+    }
+
+    private static String text(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(random.nextInt(8) == 0 ? '\n' : (char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package org.flatscrew.latte.spice.textarea;
+
+import org.flatscrew.latte.Frame;
+import org.flatscrew.latte.message.KeyPress;
+import org.flatscrew.latte.message.KeyType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class TextAreaTest {
+
+    private static final KeyPress BACKSPACE = new KeyPress(KeyType.BACKSPACE);
+
+    private static final String[] WORDS = {"a", "to", "the", "wrap", "rows", "editor", "incremental", "x", "日本語", "supercalifragilistic"};
+
+    @Test
+    void wrapsEditedLinesLikeFreshOnes() {
+        Random random = new Random(7);
+        for (int width : new int[]{8, 13, 21}) {
+            TextArea area = new TextArea().width(width).height(5).value(text(random, 400, 3));
+            wrapAll(area);
+            for (int edit = 0; edit < 2_000; edit++) {
+                area.cursor(random.nextInt(area.length() + 1));
+                int kind = random.nextInt(10);
+                if (kind < 5) {
+                    area.insert(random.nextBoolean() ? " " : WORDS[random.nextInt(WORDS.length)]);
+                } else if (kind < 9) {
+                    int from = area.cursor();
+                    area.cursor(Math.min(from + 1 + random.nextInt(12), area.length()));
+                    for (int i = area.cursor(); i > from; i--) {
+                        area.update(BACKSPACE);
+                    }
+                } else {
+                    area.insert("\n");
+                }
+                assertWrappedLikeFresh(area, width);
+            }
+        }
+    }
+
+    @Test
+    void wrapsLongLinesInPieces() {
+        Random random = new Random(11);
+        TextArea area = new TextArea().width(40).height(10).value(text(random, 50_000, 0));
+        wrapAll(area);
+        for (int edit = 0; edit < 300; edit++) {
+            area.cursor(random.nextInt(area.length() + 1));
+            if (random.nextBoolean()) {
+                area.insert(WORDS[random.nextInt(WORDS.length)] + " ");
+            } else {
+                area.update(BACKSPACE);
+            }
+            area.view(new Frame());
+        }
+        assertWrappedLikeFresh(area, 40);
+    }
+
+    private static String text(Random random, int words, int lineBreaks) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+            text.append(random.nextInt(words) < lineBreaks ? '\n' : ' ');
+        }
+        return text.toString();
+    }
+
+    private static void wrapAll(TextArea area) {
+        for (int line = 0; line < area.lineCount(); line++) {
+            area.rows(line);
+        }
+    }
+
+    private static void assertWrappedLikeFresh(TextArea area, int width) {
+        TextArea fresh = new TextArea().width(width).value(area.value());
+        for (int line = 0; line < area.lineCount(); line++) {
+            assertArrayEquals(fresh.rows(line), area.rows(line), "line " + line);
+        }
+    }
+}
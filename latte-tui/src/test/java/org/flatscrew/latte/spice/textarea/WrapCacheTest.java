@@ -0,0 +1,52 @@
+package org.flatscrew.latte.spice.textarea;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class WrapCacheTest {
+
+    @Test
+    void movesLinesAfterAnEditAndForgetsTheEditedOnes() {
+        Random random = new Random(3);
+        WrapCache cache = new WrapCache();
+        List<int[]> model = new ArrayList<>(Collections.nCopies(10, null));
+        cache.reset(model.size());
+
+        for (int edit = 0; edit < 5_000; edit++) {
+            int line = random.nextInt(model.size());
+            if (random.nextBoolean()) {
+                int[] starts = {0, random.nextInt(100)};
+                cache.put(line, starts);
+                model.set(line, starts);
+            } else {
+                int removed = random.nextInt(Math.min(model.size() - line, 4));
+                // grows now and then far past the cache's capacity
+                int added = random.nextInt(random.nextInt(50) == 0 ? 200 : 4);
+                cache.replaced(line, removed, added);
+                for (int i = 0; i <= removed; i++) {
+                    model.remove(line);
+                }
+                for (int i = 0; i <= added; i++) {
+                    model.add(line, null);
+                }
+            }
+
+            for (int i = 0; i < model.size(); i++) {
+                assertSame(model.get(i), cache.get(i), "line " + i + " after edit " + edit);
+            }
+            assertNull(cache.get(model.size()));
+        }
+
+        cache.reset(3);
+        for (int i = 0; i < model.size(); i++) {
+            assertNull(cache.get(i));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.flatscrew.latte.spice.textinput;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GapBufferTest {
+
+    @Test
+    void matchesAStringBuilderUnderRandomEdits() {
+        Random random = new Random(13);
+        StringBuilder model = new StringBuilder();
+        GapBuffer buffer = new GapBuffer();
+        int cursor = 0;
+
+        for (int edit = 0; edit < 20_000; edit++) {
+            // mostly typing and deleting around a cursor, sometimes jumping elsewhere
+            if (random.nextInt(20) == 0) {
+                cursor = random.nextInt(model.length() + 1);
+            }
+            if (model.isEmpty() || random.nextInt(3) > 0) {
+                String inserted = random.nextInt(50) == 0 ? "x".repeat(random.nextInt(500)) : String.valueOf((char) ('a' + edit % 26));
+                model.insert(cursor, inserted);
+                buffer.insert(cursor, inserted);
+                cursor += inserted.length();
+            } else {
+                int from = Math.max(0, cursor - 1 - random.nextInt(3));
+                int to = Math.min(model.length(), from + 1 + random.nextInt(3));
+                model.delete(from, to);
+                buffer.delete(from, to);
+                cursor = from;
+            }
+
+            assertEquals(model.length(), buffer.length());
+            if (edit % 500 == 0) {
+                assertSameText(model, buffer);
+            }
+        }
+        assertSameText(model, buffer);
+
+        buffer.clear();
+        assertEquals("", buffer.toString());
+        buffer.insert(0, "again");
+        assertEquals("again", buffer.toString());
+    }
+
+    private static void assertSameText(StringBuilder model, GapBuffer buffer) {
+        assertEquals(model.toString(), buffer.toString());
+        for (int i = 0; i < model.length(); i++) {
+            assertEquals(model.charAt(i), buffer.charAt(i), "char at " + i);
+        }
+        int from = model.length() / 3;
+        int to = model.length() - from;
+        assertEquals(model.substring(from, to), buffer.subSequence(from, to).toString());
+    }
+}
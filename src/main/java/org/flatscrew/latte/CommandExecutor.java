@@ -1,27 +0,0 @@
-package org.flatscrew.latte;
-
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.function.Consumer;
-
-public class CommandExecutor {
-
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
-
-    public void shutdown() {
-        executorService.shutdown();
-    }
-
-    public void executeIfPresent(Command command, Consumer<Message> messageConsumer) {
-        if (command != null) {
-            CompletableFuture
-                    .supplyAsync(command::execute, executorService)
-                    .thenAccept(messageConsumer)
-                    .exceptionally(ex -> {
-                        ex.printStackTrace();
-                        return null;
-                    });
-        }
-    }
-}
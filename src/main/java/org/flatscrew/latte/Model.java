@@ -1,8 +0,0 @@
-package org.flatscrew.latte;
-
-public interface Model {
-
-    Command init();
-    UpdateResult<? extends Model> update(Message msg);
-    String view();
-}
@@ -1,37 +0,0 @@
-package org.flatscrew.latte.command;
-
-import org.flatscrew.latte.Command;
-import org.flatscrew.latte.Message;
-
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.function.Function;
-
-public class Tick {
-
-    public static Command tick(Duration duration, Function<LocalDateTime, Message> fn) {
-        return () -> {
-            BlockingQueue<LocalDateTime> queue = new ArrayBlockingQueue<>(1);
-            Timer timer = new Timer(true);
-
-            timer.schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    queue.offer(LocalDateTime.now());
-                }
-            }, duration.toMillis());
-
-            try {
-                LocalDateTime time = queue.take();
-                timer.cancel();
-                return fn.apply(time);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-        };
-    }
-}
\ No newline at end of file